@@ -61,6 +61,9 @@ create unique index MemberToTeam_Id_uindex
 create unique index MemberToTeam_MemberId_TeamId_uindex
 	on MemberToTeam (MemberId, TeamId);
 
+create index MemberToTeam_TeamId_MemberId_index
+	on MemberToTeam (TeamId, MemberId);
+
 create table Project
 (
 	ProjectId integer not null
@@ -84,7 +87,10 @@ create table Project
 	ImportanceId integer default 1 not null
 		references Importance
 			on update restrict on delete restrict,
-	FinishingDate nvarchar(60)
+	FinishingDate nvarchar(60),
+	DeadlineDay integer,
+	FinishingDay integer,
+	FinishedLate integer
 );
 
 create table Comment
@@ -105,6 +111,9 @@ create table Comment
 create unique index Comment_Id_uindex
 	on Comment (CommentId);
 
+create index Comment_ProjectId_DateTime_index
+	on Comment (ProjectId, DateTime);
+
 create index Project_Deadline_index
 	on Project (Deadline desc);
 
@@ -117,9 +126,21 @@ create unique index Project_ProjectId_uindex
 create index Project_Status_index
 	on Project (StatusId);
 
+create index Project_TeamId_StatusId_DeadlineDay_index
+	on Project (TeamId, StatusId, DeadlineDay);
+
+create index Project_SupervisorId_StatusId_DeadlineDay_index
+	on Project (SupervisorId, StatusId, DeadlineDay);
+
+create index Project_AssigneeId_StatusId_DeadlineDay_index
+	on Project (AssigneeId, StatusId, DeadlineDay);
+
 create unique index Project_Team_Name_index
 	on Project (TeamId, Name);
 
+create index Project_FinishedLate_DeadlineDay_index
+	on Project (FinishedLate, DeadlineDay);
+
 create unique index Team_Code_uindex
 	on Team (Code);
 
@@ -132,6 +153,34 @@ create unique index Users_UserId_uindex
 create unique index Users_UserName_uindex
 	on User (UserName);
 
+create trigger Project_Days_insert
+	after insert on Project
+begin
+	update Project set DeadlineDay = cast(julianday(NEW.Deadline) - 2440587.5 as integer),
+	    FinishingDay = cast(julianday(NEW.FinishingDate) - 2440587.5 as integer),
+	    FinishedLate = case
+	        when NEW.FinishingDate is null
+	            or NEW.StatusId <> (select StatusId from ProjectStatus where StatusName = 'FINISHED')
+	        then null
+	        else julianday(NEW.FinishingDate) > julianday(NEW.Deadline)
+	    end
+	where ProjectId = NEW.ProjectId;
+end;
+
+create trigger Project_Days_update
+	after update of Deadline, FinishingDate, StatusId on Project
+begin
+	update Project set DeadlineDay = cast(julianday(NEW.Deadline) - 2440587.5 as integer),
+	    FinishingDay = cast(julianday(NEW.FinishingDate) - 2440587.5 as integer),
+	    FinishedLate = case
+	        when NEW.FinishingDate is null
+	            or NEW.StatusId <> (select StatusId from ProjectStatus where StatusName = 'FINISHED')
+	        then null
+	        else julianday(NEW.FinishingDate) > julianday(NEW.Deadline)
+	    end
+	where ProjectId = NEW.ProjectId;
+end;
+
 INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (1, 'LOW');
 INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (2, 'MEDIUM');
 INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (3, 'HIGH');
@@ -0,0 +1,74 @@
+package controller;
+
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * BackgroundRequest connects a controller to the asynchronous queries of the managers. It keeps
+ * track of the latest query of one kind (for example the filtering of the projects): submitting a
+ * new query cancels the previous one if it is still pending, and only the result of the latest one
+ * is delivered. The result (or the exception) is always handled on the Event Dispatch Thread, so
+ * the handlers may update the view directly.
+ *
+ * <p>Remark that its methods must be called on the Event Dispatch Thread.
+ *
+ * @author Bori Fazakas
+ */
+public class BackgroundRequest<T> {
+  private CompletableFuture<T> pending;
+
+  /**
+   * Replaces the pending query (if any) with a new one.
+   *
+   * @param query is the future result of the new query.
+   * @param onSuccess handles the result of the query.
+   * @param onFailure handles the exception thrown by the query. It is not called if the query was
+   *     cancelled.
+   */
+  public void submit(
+      CompletableFuture<T> query, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+    cancel();
+    pending = query;
+    query.whenComplete(
+        (result, exception) ->
+            SwingUtilities.invokeLater(
+                () -> deliver(query, result, exception, onSuccess, onFailure)));
+  }
+
+  /** Cancels the pending query, whose result will not be delivered. */
+  public void cancel() {
+    if (pending != null) {
+      pending.cancel(false);
+      pending = null;
+    }
+  }
+
+  /** @return true if and only if a query was submitted, and its result was not delivered yet. */
+  public boolean isPending() {
+    return pending != null;
+  }
+
+  private void deliver(
+      CompletableFuture<T> query,
+      T result,
+      Throwable exception,
+      Consumer<T> onSuccess,
+      Consumer<Exception> onFailure) {
+    if (query != pending) {
+      return; // a newer query was submitted, or this one was cancelled
+    }
+    pending = null;
+    if (exception == null) {
+      onSuccess.accept(result);
+      return;
+    }
+    Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+    if (cause instanceof CancellationException) {
+      return;
+    }
+    onFailure.accept(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+  }
+}
@@ -1,5 +1,6 @@
 package controller;
 
+import model.ListenerAudit;
 import model.PropertyChangeObservable;
 
 import java.beans.PropertyChangeListener;
@@ -20,12 +21,16 @@ import java.util.List;
  */
 public interface CloseablePropertyChangeListener extends PropertyChangeListener {
 
-  /** When closed, the CloseablePropertyChangeListener will be unregistered from the observables. */
+  /**
+   * When closed, the CloseablePropertyChangeListener will be unregistered from the observables. The
+   * ListenerAudit is notified, so it reports the listener if it remains registered anywhere.
+   */
   default void close() {
     List<PropertyChangeObservable> observables = getPropertyChangeObservables();
     for (PropertyChangeObservable observable : observables) {
       observable.removePropertyChangeListener(this);
     }
+    ListenerAudit.getInstance().recordClosed(this);
   }
 
   /**
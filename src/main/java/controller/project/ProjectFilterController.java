@@ -1,14 +1,18 @@
 package controller.project;
 
+import controller.BackgroundRequest;
 import controller.CloseablePropertyChangeListener;
 import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.project.Project;
+import model.project.ProjectChangeEvent;
 import model.project.ProjectManager;
+import model.project.ProjectOrder;
+import model.project.ProjectSnapshot;
+import model.team.TeamChangeEvent;
 import model.team.TeamManager;
 import model.user.User;
-import model.user.exceptions.InexistentUserException;
-import model.user.exceptions.NoSignedInUserException;
+import model.user.UserManager;
 import org.jetbrains.annotations.Nullable;
 import view.ErrorDialogFactory;
 import view.project.ProjectFilterPanel;
@@ -16,10 +20,15 @@ import view.project.ProjectListModel;
 
 import javax.swing.*;
 import java.beans.PropertyChangeEvent;
-import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * ProjectFilterController controls the ProjectFilterPanel containing the filters applied to the
@@ -29,6 +38,22 @@ import java.util.List;
  * negative number, for example -1, then all the projects corresponding to the current user are
  * listed, independent of the team.
  *
+ * <p>The queries run in the background, and only the result of the latest one is displayed: a query
+ * which is still running when the filter is applied again is cancelled.
+ *
+ * <p>The projects are sorted by the selected attribute, then by their deadline, and finally by
+ * their ids, both in the database and in memory, so the order of the list is always the same.
+ *
+ * <p>For a team, only the assignee and the supervisor filters are applied by the database: the
+ * result is kept in a ProjectSnapshot, and narrowing it by status or deadline status, or sorting
+ * it, is done in memory. The snapshot is dropped, and the database is queried again, when the
+ * assignee or the supervisor filter changes, or when a listed project changes.
+ *
+ * <p>The projects of the current user may come from many teams, so they are loaded page by page,
+ * with all the filters and the sorting applied by the database: the next page is loaded when the
+ * user scrolls to the end of the list (see loadMoreProjectsOfUser). When a listed project changes,
+ * the pages loaded so far are loaded again.
+ *
  * @author Beata Keresztes, Bori Fazakas
  */
 public class ProjectFilterController implements CloseablePropertyChangeListener {
@@ -38,6 +63,31 @@ public class ProjectFilterController implements CloseablePropertyChangeListener
   private Integer teamId;
   private ProjectListModel projectListModel;
   private ProjectFilterPanel panel;
+  private final BackgroundRequest<List<Project>> filterRequest = new BackgroundRequest<>();
+  private final BackgroundRequest<List<User>> membersRequest = new BackgroundRequest<>();
+
+  /** The projects matching the filters in snapshotFilters, or null if they must be loaded. */
+  @Nullable private ProjectSnapshot snapshot;
+
+  /** The filters applied by the database to the projects of the snapshot. */
+  @Nullable private List<Object> snapshotFilters;
+
+  /** The number of projects of the current user which are loaded at once. */
+  public static final int PROJECT_PAGE_SIZE = 100;
+
+  /** The listed projects of the current user, or null if none are listed yet. */
+  @Nullable private PagedProjects pagedProjects;
+
+  /**
+   * The changes of the projects are not filtered one by one: the filter is applied again only when
+   * no change arrived for REFILTER_DELAY_MILLIS, but at most REFILTER_MAX_DELAY_MILLIS after the
+   * first unhandled change, so that a bulk operation causes a single query.
+   */
+  private static final int REFILTER_DELAY_MILLIS = 200;
+
+  private static final long REFILTER_MAX_DELAY_MILLIS = 1000;
+  private final Timer refilterTimer;
+  private long firstUnhandledChangeMillis;
 
   public static final String ANYONE = "Anyone";
   public static final String ASC = "ASCENDING";
@@ -58,43 +108,80 @@ public class ProjectFilterController implements CloseablePropertyChangeListener
     this.projectListModel = projectListModel;
     this.panel = panel;
     propertyChangeObservables = List.of(teamManager, projectManager);
+    refilterTimer = new Timer(REFILTER_DELAY_MILLIS, e -> panel.applyFilter());
+    refilterTimer.setRepeats(false);
     this.setObservables();
   }
 
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
-    if (evt.getPropertyName()
-            .equals(ProjectManager.ProjectChangeablePropertyName.UPDATE_PROJECT.toString())
-        || evt.getPropertyName()
-            .equals(ProjectManager.ProjectChangeablePropertyName.CREATE_PROJECT.toString())
-        || evt.getPropertyName()
-            .equals(ProjectManager.ProjectChangeablePropertyName.DELETE_PROJECT.toString())
-        || evt.getPropertyName()
-            .equals(ProjectManager.ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString())) {
-      panel.applyFilter();
-    } else if (enableProjectSelectionForTeam()) {
-      if (evt.getPropertyName()
-              .equals(TeamManager.ChangablePropertyName.ADDED_TEAM_MEMBER.toString())
-          || evt.getPropertyName()
-              .equals(TeamManager.ChangablePropertyName.REMOVED_TEAM_MEMBER.toString())) {
+    if (evt instanceof ProjectChangeEvent) {
+      if (isListedProjectChange((ProjectChangeEvent) evt)) {
+        snapshot = null;
+        // the pending result may have been read before this change, so it must not be listed or
+        // kept as the snapshot; the filter is applied again after the changes stop arriving
+        filterRequest.cancel();
+        scheduleRefilter();
+      }
+    } else if (enableProjectSelectionForTeam() && evt instanceof TeamChangeEvent) {
+      if (((TeamChangeEvent) evt).getTeamId() == teamId
+          && (evt.getPropertyName()
+                  .equals(TeamManager.ChangablePropertyName.ADDED_TEAM_MEMBER.toString())
+              || evt.getPropertyName()
+                  .equals(TeamManager.ChangablePropertyName.REMOVED_TEAM_MEMBER.toString()))) {
         panel.updateAssigneeSupervisorFilters();
       }
     }
   }
 
-  public List<User> getTeamMembers() {
+  /**
+   * @return true if the changed project may be listed by this controller, i.e. it belongs to the
+   *     listed team or, if the projects of the current user are listed, the current user is its
+   *     assignee or supervisor. Changes of other projects don't require filtering again.
+   */
+  private boolean isListedProjectChange(ProjectChangeEvent evt) {
+    if (enableProjectSelectionForTeam()) {
+      return evt.getTeamId() == teamId;
+    }
     try {
-      return teamManager.getMembersOfTeam(teamId);
-    } catch (SQLException e) {
-      ErrorDialogFactory.createErrorDialog(e, null, null);
+      Optional<User> currentUser = UserManager.getInstance().getCurrentUser();
+      return currentUser.isEmpty() || evt.concernsUser(currentUser.get().getId());
+    } catch (InexistentDatabaseEntityException e) {
+      return true;
     }
-    return null;
+  }
+
+  /** Applies the filter again after the changes stop arriving. Called on the EDT. */
+  private void scheduleRefilter() {
+    long now = System.currentTimeMillis();
+    if (!refilterTimer.isRunning()) {
+      firstUnhandledChangeMillis = now;
+      refilterTimer.start();
+    } else if (now - firstUnhandledChangeMillis < REFILTER_MAX_DELAY_MILLIS) {
+      refilterTimer.restart();
+    }
+  }
+
+  /** Loads the members of the team in the background, and passes them to onLoaded. */
+  public void loadTeamMembers(Consumer<List<User>> onLoaded) {
+    membersRequest.submit(
+        teamManager.getMembersOfTeamAsync(teamId),
+        onLoaded,
+        e -> ErrorDialogFactory.createErrorDialog(e, null, null));
   }
 
   public boolean enableProjectSelectionForTeam() {
     return teamId != null;
   }
 
+  /**
+   * @return the order of the projects sorted by sorterType: the projects with the same value of the
+   *     attribute are sorted by their deadline (the closest first), and then by their ids.
+   */
+  private static ProjectOrder getOrder(Project.SorterType sorterType, boolean descending) {
+    return ProjectOrder.by(sorterType, descending).thenBy(Project.SorterType.DEADLINE, false);
+  }
+
   public void filterProjectsOfTeam(
       List<Project.Status> selectedStatuses,
       List<Project.DeadlineStatus> selectedDeadlineStatuses,
@@ -104,23 +191,29 @@ public class ProjectFilterController implements CloseablePropertyChangeListener
       boolean descending) {
     assigneeName = convertAnyoneStringToNull(assigneeName);
     supervisorName = convertAnyoneStringToNull(supervisorName);
-    try {
-      projectListModel.setProjectList(
-          projectManager.getProjectsOfTeam(
-              teamId,
-              supervisorName,
-              assigneeName,
-              EnumSet.copyOf(selectedStatuses),
-              EnumSet.copyOf(selectedDeadlineStatuses),
-              sorterType,
-              descending));
-    } catch (SQLException | InexistentDatabaseEntityException | InexistentUserException e) {
-      ErrorDialogFactory.createErrorDialog(e, null, null);
+    List<Object> filters = Arrays.asList(teamId, supervisorName, assigneeName);
+    if (isSnapshotOf(filters)) {
+      listFromSnapshot(selectedStatuses, selectedDeadlineStatuses, sorterType, descending);
+      return;
     }
+    refilterTimer.stop(); // the pending changes are covered by this query
+    filterRequest.submit(
+        projectManager.getProjectsOfTeamAsync(
+            teamId,
+            supervisorName,
+            assigneeName,
+            EnumSet.allOf(Project.Status.class),
+            EnumSet.allOf(Project.DeadlineStatus.class),
+            ProjectOrder.byId()),
+        projects -> {
+          setSnapshot(projects, filters);
+          listFromSnapshot(selectedStatuses, selectedDeadlineStatuses, sorterType, descending);
+        },
+        e -> ErrorDialogFactory.createErrorDialog(e, null, null));
   }
 
-  private String convertAnyoneStringToNull(String s) {
-    if (s.equals(ANYONE)) {
+  private String convertAnyoneStringToNull(@Nullable String s) {
+    if (s == null || s.equals(ANYONE)) { // null if the members are not loaded yet
       return null;
     }
     return s;
@@ -133,22 +226,148 @@ public class ProjectFilterController implements CloseablePropertyChangeListener
       boolean supervisedByUser,
       Project.SorterType sorterType,
       boolean descending) {
-    try {
-      projectListModel.setProjectList(
-          projectManager.getProjects(
-              assignedToUser,
-              supervisedByUser,
-              EnumSet.copyOf(selectedStatuses),
-              EnumSet.copyOf(selectedDeadlineStatuses),
-              sorterType,
-              descending));
-    } catch (SQLException | InexistentDatabaseEntityException | NoSignedInUserException e) {
-      ErrorDialogFactory.createErrorDialog(e, null, null);
+    refilterTimer.stop(); // the pending changes are covered by this query
+    if (selectedStatuses.isEmpty() || selectedDeadlineStatuses.isEmpty()) {
+      filterRequest.cancel();
+      pagedProjects = null;
+      projectListModel.setProjectList(Collections.emptyList());
+      return;
+    }
+    PagedProjects newPagedProjects =
+        new PagedProjects(
+            assignedToUser,
+            supervisedByUser,
+            EnumSet.copyOf(selectedStatuses),
+            EnumSet.copyOf(selectedDeadlineStatuses),
+            sorterType,
+            descending);
+    int pageSize = PROJECT_PAGE_SIZE;
+    if (pagedProjects != null && pagedProjects.hasSameFilters(newPagedProjects)) {
+      // the projects changed: the loaded ones are loaded again, so that only the changed ones are
+      // updated in the list, and the user can keep scrolling from the same position
+      pageSize = Math.max(pageSize, pagedProjects.loadedProjects.size());
+    }
+    loadPageOfProjects(newPagedProjects, pageSize);
+  }
+
+  /**
+   * Loads the next page of the projects of the current user, and appends it to the list, unless all
+   * of them are loaded, or a query is running already. Called when the user scrolls to the end of
+   * the list.
+   */
+  public void loadMoreProjectsOfUser() {
+    if (pagedProjects != null && pagedProjects.hasMoreProjects && !filterRequest.isPending()) {
+      loadPageOfProjects(pagedProjects, PROJECT_PAGE_SIZE);
     }
   }
 
+  /** Loads the page after the last loaded project of paged, and lists it after the loaded ones. */
+  private void loadPageOfProjects(PagedProjects paged, int pageSize) {
+    filterRequest.submit(
+        projectManager.getPageOfProjectsAsync(
+            paged.assignedToUser,
+            paged.supervisedByUser,
+            paged.statuses,
+            paged.deadlineStatuses,
+            paged.order,
+            paged.getLastProject(),
+            pageSize),
+        page -> {
+          pagedProjects = paged;
+          paged.loadedProjects.addAll(page);
+          paged.hasMoreProjects = page.size() == pageSize;
+          projectListModel.setProjectList(new ArrayList<>(paged.loadedProjects));
+        },
+        e -> ErrorDialogFactory.createErrorDialog(e, null, null));
+  }
+
+  private boolean isSnapshotOf(List<Object> filters) {
+    return snapshot != null && filters.equals(snapshotFilters);
+  }
+
+  private void setSnapshot(List<Project> projects, List<Object> filters) {
+    snapshot = new ProjectSnapshot(projects);
+    snapshotFilters = filters;
+  }
+
+  /**
+   * Lists the projects of the snapshot which match the rest of the filters. A query which is still
+   * running was started for other filters, so it is cancelled.
+   */
+  private void listFromSnapshot(
+      List<Project.Status> selectedStatuses,
+      List<Project.DeadlineStatus> selectedDeadlineStatuses,
+      Project.SorterType sorterType,
+      boolean descending) {
+    filterRequest.cancel();
+    if (selectedStatuses.isEmpty() || selectedDeadlineStatuses.isEmpty()) {
+      projectListModel.setProjectList(Collections.emptyList());
+      return;
+    }
+    projectListModel.setProjectList(
+        Objects.requireNonNull(snapshot)
+            .select(
+                EnumSet.copyOf(selectedStatuses),
+                EnumSet.copyOf(selectedDeadlineStatuses),
+                getOrder(sorterType, descending),
+                LocalDate.now()));
+  }
+
+  /** Cancels the pending queries, besides unregistering from the observables. */
+  @Override
+  public void close() {
+    refilterTimer.stop();
+    filterRequest.cancel();
+    membersRequest.cancel();
+    CloseablePropertyChangeListener.super.close();
+  }
+
   @Override
   public List<PropertyChangeObservable> getPropertyChangeObservables() {
     return Collections.unmodifiableList(propertyChangeObservables);
   }
+
+  /** The filters of the listed projects of the current user, and the pages loaded so far. */
+  private static class PagedProjects {
+    private final boolean assignedToUser;
+    private final boolean supervisedByUser;
+    private final EnumSet<Project.Status> statuses;
+    private final EnumSet<Project.DeadlineStatus> deadlineStatuses;
+    private final Project.SorterType sorterType;
+    private final boolean descending;
+    private final ProjectOrder order;
+    private final List<Project> loadedProjects = new ArrayList<>();
+    private boolean hasMoreProjects = true;
+
+    private PagedProjects(
+        boolean assignedToUser,
+        boolean supervisedByUser,
+        EnumSet<Project.Status> statuses,
+        EnumSet<Project.DeadlineStatus> deadlineStatuses,
+        Project.SorterType sorterType,
+        boolean descending) {
+      this.assignedToUser = assignedToUser;
+      this.supervisedByUser = supervisedByUser;
+      this.statuses = statuses;
+      this.deadlineStatuses = deadlineStatuses;
+      this.sorterType = sorterType;
+      this.descending = descending;
+      order = getOrder(sorterType, descending);
+    }
+
+    /** @return the last loaded project, after which the next page starts, or null if none. */
+    @Nullable
+    private Project getLastProject() {
+      return loadedProjects.isEmpty() ? null : loadedProjects.get(loadedProjects.size() - 1);
+    }
+
+    private boolean hasSameFilters(PagedProjects other) {
+      return assignedToUser == other.assignedToUser
+          && supervisedByUser == other.supervisedByUser
+          && statuses.equals(other.statuses)
+          && deadlineStatuses.equals(other.deadlineStatuses)
+          && sorterType == other.sorterType
+          && descending == other.descending;
+    }
+  }
 }
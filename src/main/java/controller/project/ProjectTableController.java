@@ -8,6 +8,7 @@ import view.project.ProjectTable;
 import view.project.single_project.ProjectFrame;
 
 import javax.swing.*;
+import java.beans.IndexedPropertyChangeEvent;
 import java.beans.PropertyChangeEvent;
 import java.util.Collections;
 import java.util.List;
@@ -36,30 +37,34 @@ public class ProjectTableController implements CloseablePropertyChangeListener {
   }
 
   public void initializeTableModel() {
-    projectTable.fillTableModel(projectListModel.getProjectList());
+    projectTable.setProjects(projectListModel.getProjectList());
   }
 
-  private void updateTableModel() {
-    projectTable.clearTableModel();
-    projectTable.fillTableModel(projectListModel.getProjectList());
-  }
-
-  public void openProject(JFrame frame, int rowNr) {
-    Project project = projectListModel.getProjectList().get(rowNr);
-    if (project != null) {
-      new ProjectFrame(frame, project);
-      frame.setEnabled(false);
-    }
-  }
-
-  public Project.Importance getProjectImportance(int projectIndex) {
-    return projectListModel.getProjectList().get(projectIndex).getImportance();
+  public void openProject(JFrame frame, Project project) {
+    new ProjectFrame(frame, project);
+    frame.setEnabled(false);
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public void propertyChange(PropertyChangeEvent evt) {
-    if (evt.getPropertyName().equals(ProjectListModel.PROJECT_LIST)) {
-      updateTableModel();
+    // the events are applied in the order they were fired, so the table follows every change of the
+    // list, even if the list changed again since the event was fired
+    switch (evt.getPropertyName()) {
+      case ProjectListModel.PROJECT_LIST:
+        projectTable.setProjects((List<Project>) evt.getNewValue());
+        break;
+      case ProjectListModel.PROJECT_INSERTED:
+        projectTable.insertProject(
+            ((IndexedPropertyChangeEvent) evt).getIndex(), (Project) evt.getNewValue());
+        break;
+      case ProjectListModel.PROJECT_UPDATED:
+        projectTable.updateProject(
+            ((IndexedPropertyChangeEvent) evt).getIndex(), (Project) evt.getNewValue());
+        break;
+      case ProjectListModel.PROJECT_REMOVED:
+        projectTable.removeProject(((IndexedPropertyChangeEvent) evt).getIndex());
+        break;
     }
   }
 
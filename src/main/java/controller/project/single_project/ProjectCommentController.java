@@ -1,10 +1,12 @@
 package controller.project.single_project;
 
+import controller.BackgroundRequest;
 import controller.CloseablePropertyChangeListener;
 import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.UnauthorisedOperationException;
 import model.comment.Comment;
+import model.comment.CommentChangeEvent;
 import model.comment.CommentManager;
 import model.project.Project;
 import model.project.exceptions.InexistentProjectException;
@@ -12,6 +14,7 @@ import model.team.exceptions.InexistentTeamException;
 import model.user.UserManager;
 import model.user.exceptions.EmptyFieldsException;
 import model.user.exceptions.NoSignedInUserException;
+import org.jetbrains.annotations.Nullable;
 import view.ErrorDialogFactory;
 import view.project.single_project.ProjectCommentPanel;
 
@@ -20,6 +23,7 @@ import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * The ProjectCommentController manages the ProjectCommentPanel, displaying and updating the list of
@@ -34,7 +38,9 @@ public class ProjectCommentController implements CloseablePropertyChangeListener
   private ProjectCommentPanel panel;
   private int projectId;
   public static final String LEAVE_COMMENT_MESSAGE = "Leave a comment";
+  public static final int COMMENT_PAGE_SIZE = 20;
   private List<PropertyChangeObservable> propertyChangeObservables;
+  private final BackgroundRequest<List<Comment>> pageRequest = new BackgroundRequest<>();
 
   public ProjectCommentController(ProjectCommentPanel panel, Project project) {
     commentManager = CommentManager.getInstance();
@@ -52,20 +58,35 @@ public class ProjectCommentController implements CloseablePropertyChangeListener
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
     if (evt.getPropertyName().equals(CommentManager.ADD_COMMENT)) {
-      panel.updateCommentPanel();
+      CommentChangeEvent commentEvt = (CommentChangeEvent) evt;
+      if (commentEvt.getProjectId() == projectId) {
+        panel.appendComment(commentEvt.getComment());
+      }
     }
   }
 
-  public List<Comment> getComments() {
-    try {
-      return commentManager.getOrderedCommentsOfProject(projectId);
-    } catch (SQLException sqlException) {
-      ErrorDialogFactory.createErrorDialog(sqlException, null, null);
-    }
-    return null;
+  /**
+   * Loads in the background the page of comments which precedes the comment before, or the page of
+   * the newest comments if before is null. If the loaded page has less than COMMENT_PAGE_SIZE
+   * comments, there are no older comments. If the page can not be loaded, onLoaded receives an
+   * empty page.
+   *
+   * @param onLoaded receives the page, on the Event Dispatch Thread.
+   */
+  public void loadPageOfComments(@Nullable Comment before, Consumer<List<Comment>> onLoaded) {
+    pageRequest.submit(
+        commentManager.getPageOfCommentsOfProjectAsync(projectId, before, COMMENT_PAGE_SIZE),
+        onLoaded,
+        e -> {
+          ErrorDialogFactory.createErrorDialog(e, null, null);
+          onLoaded.accept(Collections.emptyList());
+        });
   }
 
   public String getSenderName(Comment comment) {
+    if (comment.getSenderName() != null) {
+      return comment.getSenderName();
+    }
     try {
       return Objects.requireNonNull(userManager.getUserById(comment.getSenderId())).getUsername();
     } catch (SQLException sqlException) {
@@ -98,6 +119,12 @@ public class ProjectCommentController implements CloseablePropertyChangeListener
     }
   }
 
+  @Override
+  public void close() {
+    pageRequest.cancel();
+    CloseablePropertyChangeListener.super.close();
+  }
+
   @Override
   public List<PropertyChangeObservable> getPropertyChangeObservables() {
     return Collections.unmodifiableList(propertyChangeObservables);
@@ -3,12 +3,10 @@ package controller.project.single_project;
 import controller.FrameController;
 import model.InexistentDatabaseEntityException;
 import model.project.Project;
+import model.project.ProjectChangeEvent;
 import model.project.ProjectManager;
-import model.project.exceptions.InexistentProjectException;
-import view.ErrorDialogFactory;
 
 import javax.swing.*;
-import java.sql.SQLException;
 
 /**
  * The ProjectController manages the ProjectFrame, which allows the user to view the details about
@@ -35,11 +33,12 @@ public class ProjectController extends FrameController {
     return project;
   }
 
-  protected void setProject() {
+  /** @return true if and only if evt is about the project managed by this controller. */
+  protected boolean concernsProject(ProjectChangeEvent evt) {
     try {
-      project = projectManager.getProjectById(project.getId());
-    } catch (InexistentProjectException | InexistentDatabaseEntityException | SQLException e) {
-      ErrorDialogFactory.createErrorDialog(e, null, "The project could not be updated.");
+      return evt.getProjectId() == project.getId();
+    } catch (InexistentDatabaseEntityException e) {
+      return false;
     }
   }
 }
@@ -5,6 +5,7 @@ import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.UnauthorisedOperationException;
 import model.project.Project;
+import model.project.ProjectChangeEvent;
 import model.project.ProjectManager;
 import model.project.exceptions.DuplicateProjectNameException;
 import model.project.exceptions.InexistentProjectException;
@@ -64,11 +65,14 @@ public class ProjectDetailsController extends ProjectController
 
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
+    if (!(evt instanceof ProjectChangeEvent) || !concernsProject((ProjectChangeEvent) evt)) {
+      return;
+    }
     if (evt.getPropertyName()
             .equals(ProjectManager.ProjectChangeablePropertyName.UPDATE_PROJECT.toString())
         || evt.getPropertyName()
             .equals(ProjectManager.ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString())) {
-      setProject();
+      project = ((ProjectChangeEvent) evt).getNewProject();
       panel.updatePanel();
     } else if (evt.getPropertyName()
         .equals(ProjectManager.ProjectChangeablePropertyName.DELETE_PROJECT.toString())) {
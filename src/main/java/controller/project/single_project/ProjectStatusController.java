@@ -5,6 +5,7 @@ import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.UnauthorisedOperationException;
 import model.project.Project;
+import model.project.ProjectChangeEvent;
 import model.project.ProjectManager;
 import model.project.exceptions.IllegalProjectStatusChangeException;
 import model.project.exceptions.InexistentProjectException;
@@ -182,13 +183,17 @@ public class ProjectStatusController extends ProjectController
   /** Updates the UI if the status, assignee or supervisor of the project have changed. */
   @Override
   public void propertyChange(PropertyChangeEvent propertyChangeEvent) {
+    if (!(propertyChangeEvent instanceof ProjectChangeEvent)
+        || !concernsProject((ProjectChangeEvent) propertyChangeEvent)) {
+      return;
+    }
     if (propertyChangeEvent
             .getPropertyName()
             .equals(ProjectManager.ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString())
         || propertyChangeEvent
             .getPropertyName()
             .equals(ProjectManager.ProjectChangeablePropertyName.UPDATE_PROJECT.toString())) {
-      setProject();
+      project = ((ProjectChangeEvent) propertyChangeEvent).getNewProject();
       panel.updateButtons();
     }
   }
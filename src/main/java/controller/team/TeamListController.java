@@ -1,9 +1,12 @@
 package controller.team;
 
+import controller.BackgroundRequest;
 import controller.CloseablePropertyChangeListener;
+import model.BackgroundExecutor;
 import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.team.Team;
+import model.team.TeamChangeEvent;
 import model.team.TeamManager;
 import model.user.exceptions.*;
 import model.user.User;
@@ -23,7 +26,8 @@ import java.util.Objects;
 /**
  * TeamListController controls the actions related to TeamListPanel. It implements
  * PropertyChangeListener and updates the TeamListPanel whenever the user becomes a member of a new
- * team/looses their membership of a team.
+ * team/looses their membership of a team. The teams are updated from the snapshots carried by the
+ * change events, without reloading them from the database.
  *
  * @author Bori Fazakas
  */
@@ -34,6 +38,9 @@ public class TeamListController implements CloseablePropertyChangeListener {
   Frame parentFrame;
   TeamListPanel panel;
 
+  private List<TeamViewModel> teams; // the displayed teams, or null if they must be loaded.
+  private final BackgroundRequest<List<TeamViewModel>> teamsRequest = new BackgroundRequest<>();
+
   private List<PropertyChangeObservable> propertyChangeObservables =
       List.of(teamManager, userManager);
 
@@ -43,32 +50,109 @@ public class TeamListController implements CloseablePropertyChangeListener {
     this.setObservables();
   }
 
+  /**
+   * @return the teams of the current user. They are loaded from the database in the background only
+   *     the first time (until then, the list is empty and the panel is updated when they arrive),
+   *     afterwards they are kept up to date based on the change events of the teams.
+   */
   public List<TeamViewModel> getUsersTeams() {
-    List<TeamViewModel> teamsViewModels = new ArrayList<>();
-    try {
-      List<Team> usersTeams = teamManager.getTeamsOfCurrentUser();
-      for (Team team : usersTeams) {
-        User manager = userManager.getUserById(team.getManagerId());
-        teamsViewModels.add(
-            new TeamViewModel(
-                team.getId(), team.getName(), Objects.requireNonNull(manager).getUsername()));
+    if (teams == null) {
+      if (!teamsRequest.isPending()) {
+        loadTeams();
       }
-    } catch (SQLException | NoSignedInUserException | InexistentDatabaseEntityException e) {
-      e.printStackTrace();
-      ErrorDialogFactory.createErrorDialog(e, parentFrame, "Your teams cannot be displayed.");
-    } catch (NullPointerException e) {
-      e.printStackTrace();
-      ErrorDialogFactory.createErrorDialog(
-          new SQLException(), parentFrame, "Your teams cannot be displayed" + ".");
-      // NullPointerException occurs when manager is not found. This can be handled as if it were
-      // a database exception.
+      return new ArrayList<>();
     }
-    return teamsViewModels;
+    return Collections.unmodifiableList(teams);
+  }
+
+  /** Loads the teams of the current user in the background, and updates the panel afterwards. */
+  private void loadTeams() {
+    teamsRequest.submit(
+        BackgroundExecutor.getInstance()
+            .submit(
+                () -> {
+                  List<TeamViewModel> loadedTeams = new ArrayList<>();
+                  try {
+                    for (Team team : teamManager.getTeamsOfCurrentUser()) {
+                      loadedTeams.add(createTeamViewModel(team));
+                    }
+                  } catch (NullPointerException e) {
+                    // NullPointerException occurs when manager is not found. This can be handled
+                    // as if it were a database exception.
+                    throw new SQLException(e);
+                  }
+                  return loadedTeams;
+                }),
+        this::showTeams,
+        e -> {
+          e.printStackTrace();
+          ErrorDialogFactory.createErrorDialog(e, parentFrame, "Your teams cannot be displayed.");
+        });
+  }
+
+  private void showTeams(List<TeamViewModel> loadedTeams) {
+    teams = loadedTeams;
+    panel.updateTeams();
+  }
+
+  private TeamViewModel createTeamViewModel(Team team)
+      throws SQLException, InexistentDatabaseEntityException {
+    User manager = userManager.getUserById(team.getManagerId());
+    return new TeamViewModel(
+        team.getId(), team.getName(), Objects.requireNonNull(manager).getUsername());
+  }
+
+  /**
+   * Updates the loaded teams based on the snapshot of the changed team: the team is removed if the
+   * current user is not its member anymore, and added or replaced otherwise. The name of the
+   * manager of an added or replaced team is looked up in the background, as part of teamsRequest,
+   * so a change arriving meanwhile reloads all the teams instead. If the lookup fails, all the
+   * teams are reloaded too.
+   */
+  private void updateTeam(TeamChangeEvent evt) {
+    int index = -1;
+    for (int i = 0; i < teams.size(); i++) {
+      if (teams.get(i).getId() == evt.getTeamId()) {
+        index = i;
+      }
+    }
+    Team newTeam = evt.getNewTeam();
+    if (newTeam == null) {
+      if (index >= 0) {
+        teams.remove(index);
+        panel.updateTeams();
+      }
+      return;
+    }
+    List<TeamViewModel> updatedTeams = new ArrayList<>(teams);
+    int updatedIndex = index;
+    teamsRequest.submit(
+        BackgroundExecutor.getInstance()
+            .submit(
+                () -> {
+                  TeamViewModel teamViewModel;
+                  try {
+                    teamViewModel = createTeamViewModel(newTeam);
+                  } catch (NullPointerException e) {
+                    throw new SQLException(e); // the manager was not found
+                  }
+                  if (updatedIndex >= 0) {
+                    updatedTeams.set(updatedIndex, teamViewModel);
+                  } else {
+                    updatedTeams.add(teamViewModel);
+                  }
+                  return updatedTeams;
+                }),
+        this::showTeams,
+        e -> loadTeams());
   }
 
   @Override
   public void propertyChange(PropertyChangeEvent propertyChangeEvent) {
-    if (propertyChangeEvent
+    if (propertyChangeEvent.getPropertyName().equals(UserManager.UPDATE_ACCOUNT_PROPERTY)) {
+      // the names of the managers may have changed
+      loadTeams();
+    } else if (propertyChangeEvent
             .getPropertyName()
             .equals(TeamManager.ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS.toString())
         || propertyChangeEvent
@@ -82,12 +166,21 @@ public class TeamListController implements CloseablePropertyChangeListener {
             .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_MANAGER.toString())
         || propertyChangeEvent
             .getPropertyName()
-            .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_NAME.toString())
-        || propertyChangeEvent.getPropertyName().equals(UserManager.UPDATE_ACCOUNT_PROPERTY)) {
-      panel.updateTeams();
+            .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_NAME.toString())) {
+      if (teamsRequest.isPending()) {
+        loadTeams(); // the pending result may have been read before this change
+      } else if (teams != null) {
+        updateTeam((TeamChangeEvent) propertyChangeEvent);
+      }
     }
   }
 
+  @Override
+  public void close() {
+    teamsRequest.cancel();
+    CloseablePropertyChangeListener.super.close();
+  }
+
   @Override
   public List<PropertyChangeObservable> getPropertyChangeObservables() {
     return Collections.unmodifiableList(propertyChangeObservables);
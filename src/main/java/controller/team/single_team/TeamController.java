@@ -2,6 +2,8 @@ package controller.team.single_team;
 
 import controller.FrameController;
 import model.InexistentDatabaseEntityException;
+import model.team.Team;
+import model.team.TeamChangeEvent;
 import model.team.TeamManager;
 import model.team.exceptions.InexistentTeamException;
 import model.user.UserManager;
@@ -57,6 +59,21 @@ public class TeamController extends FrameController {
     }
   }
 
+  /** Grants access to modify the data about the team, based on a snapshot of the team. */
+  protected void setManagerAccess(Team team) {
+    try {
+      managerAccess =
+          UserManager.getInstance().getCurrentUser().get().getId() == team.getManagerId();
+    } catch (InexistentDatabaseEntityException e) {
+      ErrorDialogFactory.createErrorDialog(e, frame, null);
+    }
+  }
+
+  /** @return true if and only if evt is about the team managed by this controller. */
+  protected boolean concernsTeam(TeamChangeEvent evt) {
+    return evt.getTeamId() == teamId;
+  }
+
   public boolean getManagerAccess() {
     return managerAccess;
   }
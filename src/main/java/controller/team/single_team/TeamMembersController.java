@@ -1,10 +1,12 @@
 package controller.team.single_team;
 
+import controller.BackgroundRequest;
 import controller.CloseablePropertyChangeListener;
 import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.UnauthorisedOperationException;
 import model.project.ProjectManager;
+import model.team.TeamChangeEvent;
 import model.team.TeamManager;
 import model.team.exceptions.*;
 import model.user.User;
@@ -18,6 +20,7 @@ import java.beans.PropertyChangeEvent;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The TeamMembersController manages the TeamMembersPanel tab, displaying and updating the list of
@@ -31,6 +34,7 @@ public class TeamMembersController extends TeamController
   private TeamMembersPanel membersPanel;
   private ProjectManager projectManager;
   private List<PropertyChangeObservable> propertyChangeObservables = List.of(teamManager);
+  private final BackgroundRequest<List<User>> membersRequest = new BackgroundRequest<>();
 
   /** Messages to confirm the removal of a member from the team. */
   private static final String CONFIRM_REMOVING_MEMBER_MESSAGE =
@@ -47,31 +51,33 @@ public class TeamMembersController extends TeamController
 
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
+    if (!(evt instanceof TeamChangeEvent) || !concernsTeam((TeamChangeEvent) evt)) {
+      return;
+    }
     if (evt.getPropertyName().equals(TeamManager.ChangablePropertyName.ADDED_TEAM_MEMBER.toString())
         || evt.getPropertyName()
             .equals(TeamManager.ChangablePropertyName.REMOVED_TEAM_MEMBER.toString())) {
       membersPanel.updateMembersList();
     } else if (evt.getPropertyName()
         .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_MANAGER.toString())) {
-      setManagerAccess();
+      setManagerAccess(((TeamChangeEvent) evt).getNewTeam());
       membersPanel.enableComponents(managerAccess);
     }
   }
 
   /**
-   * Get the members of the team. The string array contains at least one element, which is the
-   * manager of the team.
+   * Loads the members of the team in the background. The list contains at least one element, which
+   * is the manager of the team.
    *
-   * @return the members of the current team
+   * @param onLoaded receives the members of the current team, on the Event Dispatch Thread.
    */
-  public List<User> getTeamMembers() {
-    try {
-      return teamManager.getMembersOfTeam(teamId);
-    } catch (SQLException sqlException) {
-      ErrorDialogFactory.createErrorDialog(
-          sqlException, frame, "The members could not be displayed.");
-    }
-    return null;
+  public void loadTeamMembers(Consumer<List<User>> onLoaded) {
+    membersRequest.submit(
+        teamManager.getMembersOfTeamAsync(teamId),
+        onLoaded,
+        exception ->
+            ErrorDialogFactory.createErrorDialog(
+                exception, frame, "The members could not be displayed."));
   }
 
   public void addMember(String name) {
@@ -142,6 +148,12 @@ public class TeamMembersController extends TeamController
     }
   }
 
+  @Override
+  public void close() {
+    membersRequest.cancel();
+    CloseablePropertyChangeListener.super.close();
+  }
+
   @Override
   public List<PropertyChangeObservable> getPropertyChangeObservables() {
     return Collections.unmodifiableList(propertyChangeObservables);
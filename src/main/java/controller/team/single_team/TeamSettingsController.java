@@ -6,6 +6,7 @@ import model.PropertyChangeObservable;
 import model.UnauthorisedOperationException;
 import model.project.ProjectManager;
 import model.team.Team;
+import model.team.TeamChangeEvent;
 import model.team.TeamManager;
 import model.team.exceptions.*;
 import model.user.User;
@@ -65,31 +66,30 @@ public class TeamSettingsController extends TeamController
     }
   }
 
-  private void updateCurrentTeam() {
-    try {
-      currentTeam = teamManager.getTeam(currentTeam.getId());
-    } catch (SQLException | InexistentTeamException | InexistentDatabaseEntityException e) {
-      ErrorDialogFactory.createErrorDialog(e, frame, "The data of this team was not updated.");
-    }
-  }
-
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
+    if (!(evt instanceof TeamChangeEvent) || !concernsTeam((TeamChangeEvent) evt)) {
+      return;
+    }
+    Team newTeam = ((TeamChangeEvent) evt).getNewTeam();
     if (evt.getPropertyName().equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_NAME.toString())
         || evt.getPropertyName()
-            .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_CODE.toString())
-        || evt.getPropertyName()
+            .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_CODE.toString())) {
+      currentTeam = newTeam;
+      updateHomePanel();
+    } else if (evt.getPropertyName()
             .equals(TeamManager.ChangablePropertyName.ADDED_TEAM_MEMBER.toString())
         || evt.getPropertyName()
             .equals(TeamManager.ChangablePropertyName.REMOVED_TEAM_MEMBER.toString())) {
-      updateCurrentTeam();
       updateHomePanel();
     } else if (evt.getPropertyName()
             .equals(TeamManager.ChangablePropertyName.CHANGED_TEAM_MANAGER.toString())
         || evt.getPropertyName()
             .equals(TeamManager.ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS.toString())) {
-      updateCurrentTeam();
-      setManagerAccess();
+      if (newTeam != null) {
+        currentTeam = newTeam;
+        setManagerAccess(newTeam);
+      }
       updateHomePanel();
     } else if (evt.getPropertyName()
         .equals(TeamManager.ChangablePropertyName.DELETE_TEAM.toString())) {
@@ -260,8 +260,7 @@ public class TeamSettingsController extends TeamController
         | InexistentTeamException
         | UnauthorisedOperationException
         | NoSignedInUserException
-        | InexistentDatabaseEntityException
-        | InexistentUserException e) {
+        | InexistentDatabaseEntityException e) {
       ErrorDialogFactory.createErrorDialog(e, frame, null);
     }
   }
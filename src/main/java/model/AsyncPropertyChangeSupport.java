@@ -0,0 +1,302 @@
+package model;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AsyncPropertyChangeSupport is a drop-in replacement of PropertyChangeSupport, which does not call
+ * the listeners on the thread firing the event, but delivers the events on the Event Dispatch
+ * Thread. This way, the operation which caused the change returns as soon as the events are queued,
+ * and a slow listener can not stall the model.
+ *
+ * <p>Every listener has its own queue, in which the order of the events is kept. If an event is
+ * queued right after an event of the same kind (same property name and, for the typed events, the
+ * same entity) which was not delivered yet, the two are coalesced into a single event, which has
+ * the old value of the first and the new value of the second. Indexed events are never coalesced,
+ * because they describe different rows.
+ *
+ * <p>For every listener, the number of delivered and coalesced events, and the latency of the
+ * delivery (from firing the event until the listener returned) is measured.
+ *
+ * <p>A listener is registered at most once: registering it again has no effect, so it can not be
+ * notified twice about the same change. The registered listeners are audited by the ListenerAudit.
+ *
+ * @author Bori Fazakas
+ */
+public class AsyncPropertyChangeSupport extends PropertyChangeSupport {
+  private final Map<PropertyChangeListener, ListenerQueue> queues = new HashMap<>();
+  private final Object sourceBean;
+
+  public AsyncPropertyChangeSupport(Object sourceBean) {
+    super(sourceBean);
+    this.sourceBean = sourceBean;
+    ListenerAudit.getInstance().register(this);
+  }
+
+  /**
+   * Queues the event for all the listeners registered for it, unless its old and new values are
+   * equal and non-null. All the other fire methods of PropertyChangeSupport delegate to this one.
+   */
+  @Override
+  public void firePropertyChange(PropertyChangeEvent event) {
+    Object oldValue = event.getOldValue();
+    Object newValue = event.getNewValue();
+    if (oldValue != null && newValue != null && oldValue.equals(newValue)) {
+      return;
+    }
+    long firingTime = System.nanoTime();
+    for (PropertyChangeListener listener : getPropertyChangeListeners()) {
+      if (listener instanceof PropertyChangeListenerProxy) {
+        PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy) listener;
+        if (!proxy.getPropertyName().equals(event.getPropertyName())) {
+          continue;
+        }
+        listener = proxy.getListener();
+      }
+      getQueue(listener).add(event, firingTime);
+    }
+  }
+
+  /** Registers the listener for all the properties, unless it is already registered for them. */
+  @Override
+  public synchronized void addPropertyChangeListener(PropertyChangeListener listener) {
+    if (listener == null) {
+      return;
+    }
+    for (PropertyChangeListener registeredListener : getPropertyChangeListeners()) {
+      if (registeredListener == listener) {
+        return;
+      }
+    }
+    super.addPropertyChangeListener(listener);
+    ListenerAudit.getInstance().recordRegistered(listener);
+  }
+
+  @Override
+  public void removePropertyChangeListener(PropertyChangeListener listener) {
+    super.removePropertyChangeListener(listener);
+    dropQueueIfUnregistered(listener);
+  }
+
+  @Override
+  public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+    super.removePropertyChangeListener(propertyName, listener);
+    dropQueueIfUnregistered(listener);
+  }
+
+  /** @return the observable which fires the events. */
+  Object getSourceBean() {
+    return sourceBean;
+  }
+
+  /** @return the delivery statistics of the currently registered listeners. */
+  public Map<PropertyChangeListener, DeliveryStatistics> getDeliveryStatistics() {
+    Map<PropertyChangeListener, DeliveryStatistics> statistics = new HashMap<>();
+    synchronized (queues) {
+      for (Map.Entry<PropertyChangeListener, ListenerQueue> entry : queues.entrySet()) {
+        ListenerQueue queue = entry.getValue();
+        synchronized (queue) {
+          statistics.put(entry.getKey(), queue.statistics.copy());
+        }
+      }
+    }
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  private ListenerQueue getQueue(PropertyChangeListener listener) {
+    synchronized (queues) {
+      return queues.computeIfAbsent(listener, ListenerQueue::new);
+    }
+  }
+
+  /** Drops the events queued for a listener which is not registered anymore. */
+  private void dropQueueIfUnregistered(PropertyChangeListener listener) {
+    for (PropertyChangeListener registeredListener : getPropertyChangeListeners()) {
+      if (registeredListener instanceof PropertyChangeListenerProxy) {
+        registeredListener = ((PropertyChangeListenerProxy) registeredListener).getListener();
+      }
+      if (registeredListener == listener) {
+        return;
+      }
+    }
+    ListenerQueue queue;
+    synchronized (queues) {
+      queue = queues.remove(listener);
+    }
+    if (queue != null) {
+      queue.cancel();
+    }
+  }
+
+  /**
+   * Returns the event equivalent to previous followed by next, or null if they can not be
+   * coalesced.
+   */
+  @Nullable
+  private static PropertyChangeEvent coalesce(
+      PropertyChangeEvent previous, PropertyChangeEvent next) {
+    if (previous instanceof IndexedPropertyChangeEvent
+        || next instanceof IndexedPropertyChangeEvent
+        || previous.getClass() != next.getClass()
+        || !previous.getPropertyName().equals(next.getPropertyName())) {
+      return null;
+    }
+    if (next instanceof CoalescableEvent) {
+      return ((CoalescableEvent) next).coalesceWith(previous);
+    }
+    if (next.getClass() != PropertyChangeEvent.class) {
+      return null; // unknown event type, which may carry more data than its values
+    }
+    PropertyChangeEvent coalesced =
+        new PropertyChangeEvent(
+            next.getSource(), next.getPropertyName(), previous.getOldValue(), next.getNewValue());
+    coalesced.setPropagationId(next.getPropagationId());
+    return coalesced;
+  }
+
+  /** The events waiting to be delivered to one listener, in the order they were fired. */
+  private static class ListenerQueue {
+    private final PropertyChangeListener listener;
+    private final Deque<QueuedEvent> events = new ArrayDeque<>();
+    private final DeliveryStatistics statistics = new DeliveryStatistics();
+    private boolean scheduled = false;
+    private boolean cancelled = false;
+
+    private ListenerQueue(PropertyChangeListener listener) {
+      this.listener = listener;
+    }
+
+    private synchronized void add(PropertyChangeEvent event, long firingTime) {
+      if (cancelled) {
+        return;
+      }
+      QueuedEvent last = events.peekLast();
+      PropertyChangeEvent coalesced = last == null ? null : coalesce(last.event, event);
+      if (coalesced != null) {
+        // the coalesced event is as old as the first one, so that latency is not underestimated
+        events.pollLast();
+        events.addLast(new QueuedEvent(coalesced, last.firingTime));
+        statistics.coalesced++;
+      } else {
+        events.addLast(new QueuedEvent(event, firingTime));
+      }
+      if (!scheduled) {
+        scheduled = true;
+        SwingUtilities.invokeLater(this::deliver);
+      }
+    }
+
+    private synchronized void cancel() {
+      cancelled = true;
+      events.clear();
+    }
+
+    /** Delivers the queued events one by one. Called on the Event Dispatch Thread. */
+    private void deliver() {
+      while (true) {
+        QueuedEvent queuedEvent;
+        synchronized (this) {
+          queuedEvent = events.pollFirst();
+          if (queuedEvent == null) {
+            scheduled = false;
+            return;
+          }
+        }
+        try {
+          listener.propertyChange(queuedEvent.event);
+        } catch (RuntimeException e) {
+          e.printStackTrace(); // a failing listener must not block the events of the others
+        }
+        synchronized (this) {
+          statistics.record(System.nanoTime() - queuedEvent.firingTime);
+        }
+      }
+    }
+  }
+
+  private static class QueuedEvent {
+    private final PropertyChangeEvent event;
+    private final long firingTime;
+
+    private QueuedEvent(PropertyChangeEvent event, long firingTime) {
+      this.event = event;
+      this.firingTime = firingTime;
+    }
+  }
+
+  /**
+   * Events which know how to coalesce with an earlier event of the same type, such as the change
+   * events of the managers.
+   */
+  public interface CoalescableEvent {
+    /**
+     * @param previous is an undelivered event, with the same class and property name, fired before
+     *     this one.
+     * @return a single event equivalent to previous followed by this one, or null if they are about
+     *     different entities and must be delivered separately.
+     */
+    @Nullable
+    PropertyChangeEvent coalesceWith(PropertyChangeEvent previous);
+  }
+
+  /** The delivery statistics of one listener. */
+  public static class DeliveryStatistics {
+    private long delivered = 0;
+    private long coalesced = 0;
+    private long totalLatencyNanos = 0;
+    private long maxLatencyNanos = 0;
+
+    private void record(long latencyNanos) {
+      delivered++;
+      totalLatencyNanos += latencyNanos;
+      maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+    }
+
+    private DeliveryStatistics copy() {
+      DeliveryStatistics copy = new DeliveryStatistics();
+      copy.delivered = delivered;
+      copy.coalesced = coalesced;
+      copy.totalLatencyNanos = totalLatencyNanos;
+      copy.maxLatencyNanos = maxLatencyNanos;
+      return copy;
+    }
+
+    /** @return the number of events delivered to the listener. */
+    public long getDeliveredCount() {
+      return delivered;
+    }
+
+    /** @return the number of events which were merged into an earlier, undelivered event. */
+    public long getCoalescedCount() {
+      return coalesced;
+    }
+
+    /** @return the average time between firing an event and the listener handling it. */
+    public double getAverageLatencyMillis() {
+      return delivered == 0 ? 0 : totalLatencyNanos / 1e6 / delivered;
+    }
+
+    /** @return the longest time between firing an event and the listener handling it. */
+    public double getMaxLatencyMillis() {
+      return maxLatencyNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "delivered=%d coalesced=%d avgLatency=%.2fms maxLatency=%.2fms",
+          delivered, coalesced, getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+  }
+}
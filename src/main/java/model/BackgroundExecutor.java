@@ -0,0 +1,112 @@
+package model;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BackgroundExecutor runs the database operations requested by the user interface on a small,
+ * dedicated pool of threads, so that a slow query or a locked database never blocks the Event
+ * Dispatch Thread. The results are returned as CompletableFutures.
+ *
+ * <p>Both the number of threads and the number of waiting tasks are bounded (configurable with the
+ * system properties "background.threads" and "background.queueCapacity"). If the queue is full, the
+ * returned future fails with a RejectedExecutionException. Cancelling a future which has not
+ * started yet prevents the task from running at all.
+ *
+ * <p>Implemented with the singleton pattern.
+ *
+ * @author Bori Fazakas
+ */
+public class BackgroundExecutor {
+  private static BackgroundExecutor instance;
+
+  private static final String THREADS_PROPERTY = "background.threads";
+  private static final int DEFAULT_THREADS = 2;
+  private static final String QUEUE_CAPACITY_PROPERTY = "background.queueCapacity";
+  private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+  private final ThreadPoolExecutor executor;
+
+  /** A database operation which returns a result, and may throw any of the model's exceptions. */
+  @FunctionalInterface
+  public interface BackgroundTask<T> {
+    T call() throws Exception;
+  }
+
+  private BackgroundExecutor(int threads, int queueCapacity) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread = new Thread(runnable, "background-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+    executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory);
+  }
+
+  /** Implemented with the singleton pattern. */
+  public static synchronized BackgroundExecutor getInstance() {
+    if (instance == null) {
+      instance =
+          new BackgroundExecutor(
+              Math.max(1, Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS)),
+              Math.max(1, Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY)));
+    }
+    return instance;
+  }
+
+  /**
+   * Schedules a task for execution on a background thread.
+   *
+   * @param task is the operation to execute.
+   * @return a future completed with the result of the task, or completed exceptionally with the
+   *     exception thrown by it.
+   */
+  public <T> CompletableFuture<T> submit(BackgroundTask<T> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Future<?> execution;
+    try {
+      execution =
+          executor.submit(
+              () -> {
+                if (result.isDone()) {
+                  return; // cancelled before it started
+                }
+                try {
+                  result.complete(task.call());
+                } catch (Throwable e) {
+                  // errors too, otherwise the future would never be completed
+                  result.completeExceptionally(e);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    result.whenComplete(
+        (value, exception) -> {
+          if (result.isCancelled() && execution.cancel(false)) {
+            executor.purge(); // free the place of the task in the queue
+          }
+        });
+    return result;
+  }
+
+  /** @return the number of tasks waiting for a free thread. */
+  public int getQueuedTaskCount() {
+    return executor.getQueue().size();
+  }
+}
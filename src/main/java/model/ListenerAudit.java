@@ -0,0 +1,124 @@
+package model;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * ListenerAudit keeps track of the listeners registered at the PropertyChangeObservables, so that
+ * listeners which are never unregistered can be detected. Such a listener is a leak: it keeps its
+ * view alive, and it is notified about every later change of the observable.
+ *
+ * <p>Every AsyncPropertyChangeSupport registers itself at the audit when it is created, and every
+ * CloseablePropertyChangeListener reports when it is closed. A closed listener which is still
+ * registered at an observable has leaked. The supports and the closed listeners are referenced
+ * weakly, so the audit does not keep anything alive.
+ *
+ * <p>If the system property "listeners.audit" is true, the report of the audit is printed when the
+ * application exits.
+ *
+ * <p>Implemented with the singleton pattern.
+ *
+ * @author Bori Fazakas
+ */
+public class ListenerAudit {
+  private static final String AUDIT_PROPERTY = "listeners.audit";
+
+  private static ListenerAudit instance;
+
+  private final Set<AsyncPropertyChangeSupport> supports =
+      Collections.newSetFromMap(new WeakHashMap<>());
+  private final Set<PropertyChangeListener> closedListeners =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  private ListenerAudit() {}
+
+  /** Implemented with the singleton pattern. */
+  public static synchronized ListenerAudit getInstance() {
+    if (instance == null) {
+      instance = new ListenerAudit();
+      if (Boolean.getBoolean(AUDIT_PROPERTY)) {
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(() -> System.out.println(instance.getReport())));
+      }
+    }
+    return instance;
+  }
+
+  /** Starts auditing the listeners of an observable. Called when its support is created. */
+  synchronized void register(AsyncPropertyChangeSupport support) {
+    supports.add(support);
+  }
+
+  /**
+   * Records that a listener was closed, so it should not be registered at any observable anymore.
+   */
+  public synchronized void recordClosed(PropertyChangeListener listener) {
+    closedListeners.add(listener);
+  }
+
+  /** Records that a listener was registered, which it may be after being closed. */
+  synchronized void recordRegistered(PropertyChangeListener listener) {
+    closedListeners.remove(listener);
+  }
+
+  /** @return the number of listeners registered at each live observable. */
+  public synchronized Map<String, Integer> getListenerCounts() {
+    Map<String, Integer> listenerCounts = new LinkedHashMap<>();
+    for (AsyncPropertyChangeSupport support : supports) {
+      listenerCounts.put(
+          describe(support.getSourceBean()), support.getPropertyChangeListeners().length);
+    }
+    return listenerCounts;
+  }
+
+  /**
+   * @return the listeners which were closed, but are still registered at an observable, each
+   *     described as "[listener] at [observable]".
+   */
+  public synchronized List<String> getLeakedListeners() {
+    List<String> leakedListeners = new ArrayList<>();
+    for (AsyncPropertyChangeSupport support : supports) {
+      for (PropertyChangeListener listener : support.getPropertyChangeListeners()) {
+        if (listener instanceof PropertyChangeListenerProxy) {
+          listener = ((PropertyChangeListenerProxy) listener).getListener();
+        }
+        if (closedListeners.contains(listener)) {
+          leakedListeners.add(describe(listener) + " at " + describe(support.getSourceBean()));
+        }
+      }
+    }
+    return leakedListeners;
+  }
+
+  /** @return the listener counts and the leaked listeners, in a human readable form. */
+  public String getReport() {
+    StringBuilder report = new StringBuilder("Listeners per observable:\n");
+    for (Map.Entry<String, Integer> listenerCount : getListenerCounts().entrySet()) {
+      report
+          .append("  ")
+          .append(listenerCount.getKey())
+          .append(": ")
+          .append(listenerCount.getValue())
+          .append('\n');
+    }
+    List<String> leakedListeners = getLeakedListeners();
+    report.append("Leaked listeners: ").append(leakedListeners.size()).append('\n');
+    for (String leakedListener : leakedListeners) {
+      report.append("  ").append(leakedListener).append('\n');
+    }
+    return report.toString();
+  }
+
+  private static String describe(Object object) {
+    return object.getClass().getSimpleName()
+        + "@"
+        + Integer.toHexString(System.identityHashCode(object));
+  }
+}
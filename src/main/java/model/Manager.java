@@ -13,33 +13,38 @@ import model.user.exceptions.*;
 import model.user.User;
 import model.user.UserManager;
 import model.user.repository.UserRepository;
-import model.user.repository.impl.SqliteUserRepository;
+import model.user.repository.impl.CachingUserRepository;
 import model.team.exceptions.*;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.sql.SQLException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manager is a helper class for UserManager, TeamManager and ProjectManager. It instantiates the
  * repositories for data access and provides some frequently-used methods for getting and validating
  * data, all of which throw the necessary exceptions in case of invalid data.
  *
+ * <p>Users are looked up through a CachingUserRepository, so that frequent lookups, such as
+ * permission checks, are served from memory.
+ *
  * <p>It implements PropertyChangeObservable, so it is able to notify the controller about changes
- * in data that should be reflected in the view.
+ * in data that should be reflected in the view. The fired events (such as ProjectChangeEvent and
+ * TeamChangeEvent) carry the ids and the snapshots of the changed entities, so that the listeners
+ * can update their views without querying the database again. They are delivered asynchronously, on
+ * the Event Dispatch Thread, by an AsyncPropertyChangeSupport.
  *
  * @author Bori Fazakas
  */
 public abstract class Manager implements PropertyChangeObservable {
   protected static ProjectRepository projectRepository = SqliteProjectRepository.getInstance();
   protected static TeamRepository teamRepository = SqliteTeamRepository.getInstance();
-  protected static UserRepository userRepository = SqliteUserRepository.getInstance();
+  protected static UserRepository userRepository = CachingUserRepository.getInstance();
   protected static CommentRepository commentRepository = SqliteCommentRepository.getInstance();
 
-  protected PropertyChangeSupport support = new PropertyChangeSupport(this);
-  protected final int OLD_VALUE = 1; // dummy data
-  protected final int NEW_VALUE = 2; // dummy data, but it must be different from OLD_VALUE
+  protected PropertyChangeSupport support = new AsyncPropertyChangeSupport(this);
 
   public void addPropertyChangeListener(PropertyChangeListener pcl) {
     support.addPropertyChangeListener(pcl);
@@ -49,6 +54,15 @@ public abstract class Manager implements PropertyChangeObservable {
     support.removePropertyChangeListener(pcl);
   }
 
+  /**
+   * Runs a task on the BackgroundExecutor. Used for the asynchronous variants of the queries, so
+   * that the user interface does not wait for the database.
+   */
+  protected static <T> CompletableFuture<T> inBackground(
+      BackgroundExecutor.BackgroundTask<T> task) {
+    return BackgroundExecutor.getInstance().submit(task);
+  }
+
   /**
    * @return the current user.
    * @throws NoSignedInUserException if there is no current user.
@@ -1,6 +1,7 @@
 package model.comment;
 
 import model.InexistentDatabaseEntityException;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +15,7 @@ public class Comment {
   private final String text;
   private final int projectId; // the id of the project to which it belongs.
   private final int senderId; // the id of the user who sent it.
+  private final String senderName; // the username of the sender, or null if it was not loaded.
   private final LocalDateTime dateTime; // the time when it was sent.
 
   /**
@@ -26,6 +28,11 @@ public class Comment {
       super(-1, text, projectId, senderId, dateTime);
     }
 
+    public SavableComment(
+        String text, int projectId, int senderId, String senderName, LocalDateTime dateTime) {
+      super(-1, text, projectId, senderId, senderName, dateTime);
+    }
+
     @Override
     public int getId() throws InexistentDatabaseEntityException {
       throw new InexistentDatabaseEntityException(this);
@@ -33,10 +40,21 @@ public class Comment {
   }
 
   public Comment(int id, String text, int projectId, int senderId, LocalDateTime dateTime) {
+    this(id, text, projectId, senderId, null, dateTime);
+  }
+
+  public Comment(
+      int id,
+      String text,
+      int projectId,
+      int senderId,
+      @Nullable String senderName,
+      LocalDateTime dateTime) {
     this.id = id;
     this.text = text;
     this.projectId = projectId;
     this.senderId = senderId;
+    this.senderName = senderName;
     this.dateTime = dateTime;
   }
 
@@ -56,6 +74,15 @@ public class Comment {
     return senderId;
   }
 
+  /**
+   * @return the username of the sender, if it was loaded together with the comment, and null
+   *     otherwise.
+   */
+  @Nullable
+  public String getSenderName() {
+    return senderName;
+  }
+
   public LocalDateTime getDateTime() {
     return dateTime;
   }
@@ -0,0 +1,27 @@
+package model.comment;
+
+import java.beans.PropertyChangeEvent;
+
+/**
+ * CommentChangeEvent is fired by the CommentManager whenever a comment is added to a project. It
+ * carries the saved comment as its new value, together with the id of the project to which it
+ * belongs, so that listeners can display it without reloading the comments of the project.
+ *
+ * @author Bori Fazakas
+ */
+public class CommentChangeEvent extends PropertyChangeEvent {
+  private final int projectId;
+
+  public CommentChangeEvent(Object source, String propertyName, Comment comment) {
+    super(source, propertyName, null, comment);
+    this.projectId = comment.getProjectId();
+  }
+
+  public int getProjectId() {
+    return projectId;
+  }
+
+  public Comment getComment() {
+    return (Comment) getNewValue();
+  }
+}
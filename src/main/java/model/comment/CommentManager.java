@@ -9,11 +9,12 @@ import model.team.Team;
 import model.team.exceptions.InexistentTeamException;
 import model.user.User;
 import model.user.exceptions.NoSignedInUserException;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * CommentManager is responsible for executing all the commands needed for the application that are
@@ -36,6 +37,8 @@ public class CommentManager extends Manager {
 
   /**
    * Adds a new comment to project with id projectId, from the current user, with the content text.
+   * The ADD_COMMENT event fired afterwards carries the saved comment as its new value, so that
+   * listeners can display it without reloading the comments of the project.
    *
    * @param text is the content of the new comment.
    * @param projectId is the id of the project to which it will belong.
@@ -60,21 +63,45 @@ public class CommentManager extends Manager {
           currentUser.getId(), "add comment", "they " + "are not member of the team");
     }
     Comment.SavableComment comment =
-        new Comment.SavableComment(text, projectId, currentUser.getId(), LocalDateTime.now());
-    commentRepository.saveComment(comment);
-    support.firePropertyChange(ADD_COMMENT, OLD_VALUE, NEW_VALUE);
+        new Comment.SavableComment(
+            text, projectId, currentUser.getId(), currentUser.getUsername(), LocalDateTime.now());
+    Comment savedComment = commentRepository.saveComment(comment);
+    support.firePropertyChange(new CommentChangeEvent(this, ADD_COMMENT, savedComment));
   }
 
   /**
-   * Finds and returns from the database a list of all comments belonging to a a project.
+   * Finds and returns from the database a list of all comments belonging to a a project, ordered by
+   * the time they were sent. The comments are loaded together with the names of their senders, in a
+   * single query.
    *
    * @param projectId is the id of the project whose comments are listed.
    * @return a list of all comments belonging to a a project.
    * @throws SQLException if the operation could not be performed in the database.
    */
   public List<Comment> getOrderedCommentsOfProject(int projectId) throws SQLException {
-    List<Comment> comments = commentRepository.getCommentsOfProject(projectId);
-    comments.sort(Comparator.comparing(Comment::getDateTime));
-    return comments;
+    return commentRepository.getOrderedCommentsOfProject(projectId);
+  }
+
+  /**
+   * Finds and returns from the database a page of the comments belonging to a project: the newest
+   * ones sent before a given comment, ordered by the time they were sent.
+   *
+   * @param projectId is the id of the project whose comments are listed.
+   * @param before is the oldest comment loaded so far, or null if the newest comments are needed.
+   * @param pageSize is the maximum number of comments returned.
+   * @return a list of at most pageSize comments, from the oldest to the newest.
+   * @throws SQLException if the operation could not be performed in the database.
+   * @throws InexistentDatabaseEntityException if before is not saved in the database.
+   */
+  public List<Comment> getPageOfCommentsOfProject(
+      int projectId, @Nullable Comment before, int pageSize)
+      throws SQLException, InexistentDatabaseEntityException {
+    return commentRepository.getPageOfCommentsOfProject(projectId, before, pageSize);
+  }
+
+  /** Asynchronous variant of getPageOfCommentsOfProject, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<Comment>> getPageOfCommentsOfProjectAsync(
+      int projectId, @Nullable Comment before, int pageSize) {
+    return inBackground(() -> getPageOfCommentsOfProject(projectId, before, pageSize));
   }
 }
@@ -1,6 +1,8 @@
 package model.comment.repository;
 
+import model.InexistentDatabaseEntityException;
 import model.comment.Comment;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -16,18 +18,39 @@ public interface CommentRepository {
    * Saves a new comment in the database.
    *
    * @param comment is the new comment to save.
+   * @return the saved comment, with the id assigned to it in the database.
    * @throws SQLException if the operation could not be performed in the database.
    */
-  void saveComment(Comment.SavableComment comment) throws SQLException;
+  Comment saveComment(Comment.SavableComment comment) throws SQLException;
 
   /**
-   * Returns all the comments attached to a given project.
+   * Returns all the comments attached to a given project, together with the usernames of their
+   * senders, ordered by the time when they were sent (comments sent at the same time are ordered by
+   * id).
    *
    * @param projectId is the id of the project whose comments are returned.
-   * @return a list of all comments belonging to the given project.
+   * @return a list of all comments belonging to the given project, from the oldest to the newest.
    * @throws SQLException if the operation could not be performed in the database.
    */
-  List<Comment> getCommentsOfProject(int projectId) throws SQLException;
+  List<Comment> getOrderedCommentsOfProject(int projectId) throws SQLException;
+
+  /**
+   * Returns a page of the comments attached to a given project, together with the usernames of
+   * their senders: the newest comments which were sent before a given comment. Since the page is
+   * determined by the position of that comment, and not by an offset, loading a page costs the same
+   * regardless of how many comments the project has.
+   *
+   * @param projectId is the id of the project whose comments are returned.
+   * @param before is the comment before which the page ends, or null if the page should contain the
+   *     newest comments of the project.
+   * @param pageSize is the maximum number of comments returned.
+   * @return a list of at most pageSize comments, ordered from the oldest to the newest, like in
+   *     getOrderedCommentsOfProject.
+   * @throws SQLException if the operation could not be performed in the database.
+   * @throws InexistentDatabaseEntityException if before is not saved in the database.
+   */
+  List<Comment> getPageOfCommentsOfProject(int projectId, @Nullable Comment before, int pageSize)
+      throws SQLException, InexistentDatabaseEntityException;
 
   /**
    * Deletes all the comments which belong to a given project.
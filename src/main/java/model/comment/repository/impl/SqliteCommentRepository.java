@@ -1,15 +1,18 @@
 package model.comment.repository.impl;
 
+import model.InexistentDatabaseEntityException;
 import model.comment.Comment;
 import model.comment.repository.CommentRepository;
+import model.database.PooledConnection;
 import model.database.SqliteDatabaseConnectionFactory;
+import org.jetbrains.annotations.Nullable;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -35,31 +38,60 @@ public class SqliteCommentRepository implements CommentRepository {
   private static final String SAVE_COMMENT_STATEMENT =
       "INSERT INTO Comment (CommentText, ProjectId, SenderId, DateTime) VALUES (?, ?, ?, ?)";
 
-  // Get comments of a project.
-  private static final String GET_COMMENTS_OF_PROJECT_STATEMENT =
-      "Select * FROM Comment WHERE projectId = ?";
+  // Get comments of a project, with the names of their senders, from the oldest to the newest.
+  private static final String GET_ORDERED_COMMENTS_OF_PROJECT_STATEMENT =
+      "SELECT c.CommentId, c.CommentText, c.ProjectId, c.SenderId, u.UserName, c.DateTime "
+          + "FROM Comment c JOIN User u ON c.SenderId = u.UserId "
+          + "WHERE c.ProjectId = ? "
+          + "ORDER BY c.DateTime, c.CommentId";
+
+  // Get the newest comments of a project, with the names of their senders, from the newest to the
+  // oldest.
+  private static final String GET_NEWEST_COMMENTS_OF_PROJECT_STATEMENT =
+      "SELECT c.CommentId, c.CommentText, c.ProjectId, c.SenderId, u.UserName, c.DateTime "
+          + "FROM Comment c JOIN User u ON c.SenderId = u.UserId "
+          + "WHERE c.ProjectId = ? "
+          + "ORDER BY c.DateTime DESC, c.CommentId DESC "
+          + "LIMIT ?";
+
+  // Get the newest comments of a project sent before a given comment (identified by its time and
+  // id), with the names of their senders, from the newest to the oldest.
+  private static final String GET_COMMENTS_OF_PROJECT_BEFORE_STATEMENT =
+      "SELECT c.CommentId, c.CommentText, c.ProjectId, c.SenderId, u.UserName, c.DateTime "
+          + "FROM Comment c JOIN User u ON c.SenderId = u.UserId "
+          + "WHERE c.ProjectId = ? "
+          + "AND (c.DateTime < ? OR (c.DateTime = ? AND c.CommentId < ?)) "
+          + "ORDER BY c.DateTime DESC, c.CommentId DESC "
+          + "LIMIT ?";
 
   // Delete all comments of a project.
   private static final String DELETE_COMMENTS_OF_PROJECT_STATEMENT =
       "DELETE FROM Comment WHERE projectId = ?";
 
   @Override
-  public void saveComment(Comment.SavableComment comment) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement saveCommentSt = c.prepareStatement(SAVE_COMMENT_STATEMENT)) {
+  public Comment saveComment(Comment.SavableComment comment) throws SQLException {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement saveCommentSt = c.prepareStatement(SAVE_COMMENT_STATEMENT);
       saveCommentSt.setString(1, comment.getText());
       saveCommentSt.setInt(2, comment.getProjectId());
       saveCommentSt.setInt(3, comment.getSenderId());
       saveCommentSt.setString(4, comment.getDateTime().toString());
       saveCommentSt.executeUpdate();
+      return new Comment(
+          c.getGeneratedId(saveCommentSt),
+          comment.getText(),
+          comment.getProjectId(),
+          comment.getSenderId(),
+          comment.getSenderName(),
+          comment.getDateTime());
     }
   }
 
   @Override
-  public List<Comment> getCommentsOfProject(int projectId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getCommentsOfProjectSt =
-            c.prepareStatement(GET_COMMENTS_OF_PROJECT_STATEMENT)) {
+  public List<Comment> getOrderedCommentsOfProject(int projectId) throws SQLException {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getCommentsOfProjectSt =
+          c.prepareStatement(GET_ORDERED_COMMENTS_OF_PROJECT_STATEMENT);
       getCommentsOfProjectSt.setInt(1, projectId);
       try (ResultSet result = getCommentsOfProjectSt.executeQuery()) {
         List<Comment> commentsOfProject = new ArrayList<>();
@@ -71,11 +103,40 @@ public class SqliteCommentRepository implements CommentRepository {
     }
   }
 
+  @Override
+  public List<Comment> getPageOfCommentsOfProject(
+      int projectId, @Nullable Comment before, int pageSize)
+      throws SQLException, InexistentDatabaseEntityException {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getPageSt;
+      if (before == null) {
+        getPageSt = c.prepareStatement(GET_NEWEST_COMMENTS_OF_PROJECT_STATEMENT);
+        getPageSt.setInt(1, projectId);
+        getPageSt.setInt(2, pageSize);
+      } else {
+        getPageSt = c.prepareStatement(GET_COMMENTS_OF_PROJECT_BEFORE_STATEMENT);
+        getPageSt.setInt(1, projectId);
+        getPageSt.setString(2, before.getDateTime().toString());
+        getPageSt.setString(3, before.getDateTime().toString());
+        getPageSt.setInt(4, before.getId());
+        getPageSt.setInt(5, pageSize);
+      }
+      try (ResultSet result = getPageSt.executeQuery()) {
+        List<Comment> page = new ArrayList<>();
+        while (result.next()) {
+          page.add(getCommentFromResult(result));
+        }
+        Collections.reverse(page);
+        return page;
+      }
+    }
+  }
+
   @Override
   public void deleteAllCommentsOfProject(int projectId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement deleteCommentsOfProjectSt =
-            c.prepareStatement(DELETE_COMMENTS_OF_PROJECT_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement deleteCommentsOfProjectSt =
+          c.prepareStatement(DELETE_COMMENTS_OF_PROJECT_STATEMENT);
       deleteCommentsOfProjectSt.setInt(1, projectId);
       deleteCommentsOfProjectSt.executeUpdate();
     }
@@ -86,7 +147,8 @@ public class SqliteCommentRepository implements CommentRepository {
     String text = result.getString("CommentText");
     int projectId = result.getInt("ProjectId");
     int senderId = result.getInt("SenderId");
+    String senderName = result.getString("UserName");
     LocalDateTime dateTime = LocalDateTime.parse(result.getString("DateTime"));
-    return new Comment(id, text, projectId, senderId, dateTime);
+    return new Comment(id, text, projectId, senderId, senderName, dateTime);
   }
 }
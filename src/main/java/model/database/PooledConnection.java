@@ -0,0 +1,230 @@
+package model.database;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+/**
+ * PooledConnection is a database connection lent by the SqliteConnectionPool. Closing it does not
+ * close the underlying connection, but returns it to the pool, so it is meant to be used in a
+ * try-with-resources block, just like a plain connection.
+ *
+ * @author Bori Fazakas
+ */
+public class PooledConnection implements AutoCloseable {
+  /** The number of seconds to wait for the validation of a connection. */
+  private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+  private static final String STATEMENT_CACHE_SIZE_PROPERTY = "database.statementCacheSize";
+  private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+  private static final String VALIDATION_IDLE_MILLIS_PROPERTY = "database.validationIdleMillis";
+  private static final long DEFAULT_VALIDATION_IDLE_MILLIS = 30000;
+  /**
+   * The number of milliseconds a connection may stay idle in the pool before it is validated again
+   * when it is lent.
+   */
+  private static final long VALIDATION_IDLE_MILLIS =
+      Long.getLong(VALIDATION_IDLE_MILLIS_PROPERTY, DEFAULT_VALIDATION_IDLE_MILLIS);
+
+  private final SqliteConnectionPool pool;
+  private final Connection connection;
+  private final boolean writable;
+  private final StatementCache statementCache;
+  private int transactionDepth = 0;
+  /** True if an operation on this connection failed since it was last validated. */
+  private volatile boolean failed = false;
+  /** The time when the connection was last validated or returned to the pool. */
+  private volatile long lastUsedMillis = System.currentTimeMillis();
+
+  PooledConnection(SqliteConnectionPool pool, boolean writable) throws SQLException {
+    this(pool, writable, SqliteDatabaseConnectionFactory.createConnection());
+  }
+
+  /** Wraps an already opened physical connection. */
+  PooledConnection(SqliteConnectionPool pool, boolean writable, Connection connection) {
+    this.pool = pool;
+    this.writable = writable;
+    this.connection = connection;
+    this.statementCache =
+        new StatementCache(
+            connection,
+            Integer.getInteger(STATEMENT_CACHE_SIZE_PROPERTY, DEFAULT_STATEMENT_CACHE_SIZE));
+  }
+
+  /**
+   * Returns a prepared statement for the given sql from the cache of this connection. Remark that
+   * the returned statement must not be closed by the caller, only its result sets.
+   */
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    try {
+      return statementCache.prepareStatement(sql);
+    } catch (SQLException e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the id which was generated for the row inserted by the last execution of insertSt. It
+   * must be called on the same connection, right after the insert.
+   *
+   * @param insertSt is the statement which inserted the row.
+   * @return the id of the new row.
+   * @throws SQLException if no id was generated.
+   */
+  public int getGeneratedId(PreparedStatement insertSt) throws SQLException {
+    try (ResultSet generatedKeys = insertSt.getGeneratedKeys()) {
+      if (!generatedKeys.next()) {
+        throw new SQLException("No id was generated for the inserted row");
+      }
+      return generatedKeys.getInt(1);
+    }
+  }
+
+  /**
+   * Executes a single statement, bypassing the statement cache. Meant for statements which run only
+   * once, such as schema changes.
+   */
+  void execute(String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    } catch (SQLException e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Starts a transaction, or, if a transaction is already running on this connection, a nested one,
+   * which is implemented with a savepoint. Used by UnitOfWork.
+   *
+   * @return the savepoint of the nested transaction, or null if a new transaction was started.
+   */
+  @Nullable
+  Savepoint beginTransaction() throws SQLException {
+    if (!writable) {
+      throw new SQLException("Transactions are only allowed on the writer connection");
+    }
+    if (transactionDepth == 0) {
+      connection.setAutoCommit(false);
+      transactionDepth++;
+      return null;
+    }
+    Savepoint savepoint = connection.setSavepoint();
+    transactionDepth++;
+    return savepoint;
+  }
+
+  /**
+   * Commits the transaction started by beginTransaction, or keeps the changes of the nested
+   * transaction with the given savepoint, which are committed together with the outer transaction.
+   * If the commit fails, the transaction is rolled back.
+   */
+  void commitTransaction(@Nullable Savepoint savepoint) throws SQLException {
+    transactionDepth--;
+    if (savepoint != null) {
+      connection.releaseSavepoint(savepoint);
+      return;
+    }
+    try {
+      connection.commit();
+    } catch (SQLException e) {
+      failed = true;
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /**
+   * Rolls back the transaction started by beginTransaction, or only the changes of the nested
+   * transaction with the given savepoint.
+   */
+  void rollbackTransaction(@Nullable Savepoint savepoint) throws SQLException {
+    transactionDepth--;
+    if (savepoint != null) {
+      connection.rollback(savepoint);
+      connection.releaseSavepoint(savepoint);
+      return;
+    }
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      failed = true;
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /** Creates a savepoint in the running transaction. */
+  Savepoint setSavepoint() throws SQLException {
+    return connection.setSavepoint();
+  }
+
+  /** Rolls back the changes made in the running transaction since the savepoint was created. */
+  void rollbackToSavepoint(Savepoint savepoint) throws SQLException {
+    connection.rollback(savepoint);
+  }
+
+  public StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /** @return true if and only if this is the writer connection of the pool. */
+  public boolean isWritable() {
+    return writable;
+  }
+
+  /** Returns the connection to the pool. */
+  @Override
+  public void close() {
+    pool.release(this);
+  }
+
+  /**
+   * Checks whether the connection can still be used, without a round trip to the database unless an
+   * operation on it failed, or it was idle for too long. Called before the connection is lent.
+   */
+  boolean isUsable() {
+    try {
+      if (connection.isClosed()) {
+        return false;
+      }
+      long now = System.currentTimeMillis();
+      if (!failed && now - lastUsedMillis < VALIDATION_IDLE_MILLIS) {
+        return true;
+      }
+      if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+        return false;
+      }
+      failed = false;
+      lastUsedMillis = now;
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /** Records that the connection was returned to the pool. */
+  void markReleased() {
+    lastUsedMillis = System.currentTimeMillis();
+  }
+
+  /** Closes the underlying connection. */
+  void closePhysically() {
+    statementCache.clear();
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      e.printStackTrace();
+    }
+  }
+}
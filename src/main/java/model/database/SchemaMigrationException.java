@@ -0,0 +1,20 @@
+package model.database;
+
+import java.sql.SQLException;
+
+/**
+ * Exception used when the schema of the database can not be brought up to date: a migration script
+ * is missing or invalid, an applied script was changed since it was applied, or a migration failed
+ * (in which case its changes were rolled back).
+ *
+ * @author Bori Fazakas
+ */
+public class SchemaMigrationException extends SQLException {
+  public SchemaMigrationException(String message) {
+    super(message);
+  }
+
+  public SchemaMigrationException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,269 @@
+package model.database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * SchemaMigrator brings the schema of the database up to date with the one the application expects,
+ * when the connection pool is opened. The schema is described by an ordered list of migration
+ * scripts among the resources, in the db/migration directory: migrations.txt lists the scripts,
+ * each named V[version]__[description].sql, with consecutive versions starting from 1.
+ *
+ * <p>Every script is applied only once, in a single transaction, together with the record of its
+ * version and checksum in the SchemaVersion table. The checksums of the applied scripts are
+ * verified at every start, so a script which was changed after it had been applied is reported,
+ * instead of leaving the existing databases with a different schema than the new ones.
+ *
+ * <p>A script is split into statements at the semicolons which end a line, except inside the body
+ * of a trigger, which ends with a line containing only "end;".
+ *
+ * @author Bori Fazakas
+ */
+class SchemaMigrator {
+  private static final String MIGRATION_DIRECTORY = "/db/migration/";
+  private static final String MIGRATION_LIST = MIGRATION_DIRECTORY + "migrations.txt";
+  private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+  // The version of the schema of the databases created from project_management_database.sql before
+  // the migrations were introduced.
+  private static final int BASELINE_VERSION = 1;
+  // The version which added the day columns of Project. The databases created before the migrations
+  // were introduced may already have them, but then they have all the indexes of the previous
+  // versions too.
+  private static final int PROJECT_DAY_COLUMNS_VERSION = 4;
+
+  // Create the table of the applied migrations.
+  private static final String CREATE_VERSION_TABLE =
+      "CREATE TABLE SchemaVersion (Version integer not null constraint SchemaVersion_pk primary "
+          + "key, Description nvarchar(100) not null, Checksum integer not null, AppliedOn "
+          + "nvarchar(60) not null, ExecutionTime integer not null)";
+
+  // Save an applied migration.
+  private static final String SAVE_VERSION_STATEMENT =
+      "INSERT INTO SchemaVersion (Version, Description, Checksum, AppliedOn, ExecutionTime) VALUES "
+          + "(?, ?, ?, ?, ?)";
+
+  // Get the checksums of the applied migrations.
+  private static final String GET_CHECKSUMS = "SELECT Version, Checksum FROM SchemaVersion";
+
+  // Check whether a table exists.
+  private static final String TABLE_EXISTS =
+      "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?";
+
+  private SchemaMigrator() {}
+
+  /**
+   * Applies the migrations which were not applied yet, each in a single transaction, after
+   * verifying the checksums of the applied ones.
+   *
+   * @param c is the writer connection.
+   * @throws SchemaMigrationException if the migrations are invalid, or one of them failed.
+   * @throws SQLException if the versions of the schema could not be read or saved.
+   */
+  static void migrate(PooledConnection c) throws SQLException {
+    List<Migration> migrations = loadMigrations();
+    if (!tableExists(c, "SchemaVersion")) {
+      createVersionTable(c, migrations);
+    }
+    Map<Integer, Long> appliedChecksums = getAppliedChecksums(c);
+    for (Map.Entry<Integer, Long> applied : appliedChecksums.entrySet()) {
+      int version = applied.getKey();
+      if (version > migrations.size()) {
+        throw new SchemaMigrationException(
+            "The database has schema version "
+                + version
+                + ", which is newer than the latest version known by the application");
+      }
+      Migration migration = migrations.get(version - 1);
+      if (migration.checksum != applied.getValue()) {
+        throw new SchemaMigrationException(
+            "Migration " + migration + " was changed after it had been applied");
+      }
+    }
+    for (Migration migration : migrations) {
+      if (!appliedChecksums.containsKey(migration.version)) {
+        apply(c, migration);
+      }
+    }
+  }
+
+  /**
+   * Creates the SchemaVersion table. If the database was created before the migrations were
+   * introduced, the migrations already reflected by its schema are recorded as applied, without
+   * executing them.
+   */
+  private static void createVersionTable(PooledConnection c, List<Migration> migrations)
+      throws SQLException {
+    int existingVersion = 0;
+    if (tableExists(c, "User")) {
+      existingVersion =
+          hasColumn(c, "Project", "DeadlineDay") ? PROJECT_DAY_COLUMNS_VERSION : BASELINE_VERSION;
+    }
+    c.beginTransaction();
+    try {
+      c.execute(CREATE_VERSION_TABLE);
+      for (Migration migration : migrations.subList(0, existingVersion)) {
+        saveVersion(c, migration, 0);
+      }
+      c.commitTransaction(null);
+    } catch (SQLException e) {
+      c.rollbackTransaction(null);
+      throw e;
+    }
+  }
+
+  private static void apply(PooledConnection c, Migration migration) throws SQLException {
+    long startTime = System.currentTimeMillis();
+    c.beginTransaction();
+    try {
+      for (String statement : migration.getStatements()) {
+        c.execute(statement);
+      }
+      saveVersion(c, migration, System.currentTimeMillis() - startTime);
+      c.commitTransaction(null);
+    } catch (SQLException e) {
+      c.rollbackTransaction(null);
+      throw new SchemaMigrationException("Migration " + migration + " failed", e);
+    }
+  }
+
+  private static void saveVersion(PooledConnection c, Migration migration, long executionTime)
+      throws SQLException {
+    PreparedStatement saveVersionSt = c.prepareStatement(SAVE_VERSION_STATEMENT);
+    saveVersionSt.setInt(1, migration.version);
+    saveVersionSt.setString(2, migration.description);
+    saveVersionSt.setLong(3, migration.checksum);
+    saveVersionSt.setString(4, LocalDateTime.now().toString());
+    saveVersionSt.setLong(5, executionTime);
+    saveVersionSt.executeUpdate();
+  }
+
+  private static Map<Integer, Long> getAppliedChecksums(PooledConnection c) throws SQLException {
+    Map<Integer, Long> checksums = new HashMap<>();
+    try (ResultSet result = c.prepareStatement(GET_CHECKSUMS).executeQuery()) {
+      while (result.next()) {
+        checksums.put(result.getInt("Version"), result.getLong("Checksum"));
+      }
+    }
+    return checksums;
+  }
+
+  private static boolean tableExists(PooledConnection c, String table) throws SQLException {
+    PreparedStatement tableExistsSt = c.prepareStatement(TABLE_EXISTS);
+    tableExistsSt.setString(1, table);
+    try (ResultSet result = tableExistsSt.executeQuery()) {
+      return result.next();
+    }
+  }
+
+  private static boolean hasColumn(PooledConnection c, String table, String column)
+      throws SQLException {
+    try (ResultSet result = c.prepareStatement("PRAGMA table_info(" + table + ")").executeQuery()) {
+      while (result.next()) {
+        if (result.getString("name").equalsIgnoreCase(column)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Reads the migration scripts listed in migrations.txt, in the order of their versions. */
+  static List<Migration> loadMigrations() throws SchemaMigrationException {
+    List<Migration> migrations = new ArrayList<>();
+    for (String scriptName : readResource(MIGRATION_LIST).split("\n")) {
+      scriptName = scriptName.trim();
+      if (scriptName.isEmpty()) {
+        continue;
+      }
+      Matcher matcher = SCRIPT_NAME.matcher(scriptName);
+      if (!matcher.matches()) {
+        throw new SchemaMigrationException("Invalid migration script name: " + scriptName);
+      }
+      int version = Integer.parseInt(matcher.group(1));
+      if (version != migrations.size() + 1) {
+        throw new SchemaMigrationException(
+            "Migration " + scriptName + " should have version " + (migrations.size() + 1));
+      }
+      migrations.add(
+          new Migration(
+              version,
+              matcher.group(2).replace('_', ' '),
+              readResource(MIGRATION_DIRECTORY + scriptName)));
+    }
+    return migrations;
+  }
+
+  /** Returns the content of a resource, with "\n" line endings. */
+  private static String readResource(String name) throws SchemaMigrationException {
+    InputStream stream = SchemaMigrator.class.getResourceAsStream(name);
+    if (stream == null) {
+      throw new SchemaMigrationException("Missing migration resource: " + name);
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.joining("\n"));
+    } catch (IOException e) {
+      throw new SchemaMigrationException("Could not read migration resource: " + name, e);
+    }
+  }
+
+  /** A migration script. */
+  static class Migration {
+    private final int version;
+    private final String description;
+    private final String script;
+    private final long checksum;
+
+    Migration(int version, String description, String script) {
+      this.version = version;
+      this.description = description;
+      this.script = script;
+      CRC32 crc = new CRC32();
+      crc.update(script.getBytes(StandardCharsets.UTF_8));
+      this.checksum = crc.getValue();
+    }
+
+    /** Splits the script into statements, leaving out the comments. */
+    List<String> getStatements() {
+      List<String> statements = new ArrayList<>();
+      StringBuilder statement = new StringBuilder();
+      for (String line : script.split("\n")) {
+        String trimmedLine = line.trim();
+        if (trimmedLine.isEmpty() || trimmedLine.startsWith("--")) {
+          continue;
+        }
+        statement.append(line).append('\n');
+        boolean inTrigger = statement.toString().trim().toLowerCase().startsWith("create trigger");
+        if (trimmedLine.endsWith(";") && (!inTrigger || trimmedLine.equalsIgnoreCase("end;"))) {
+          statements.add(statement.toString().trim());
+          statement.setLength(0);
+        }
+      }
+      if (statement.toString().trim().length() > 0) {
+        statements.add(statement.toString().trim());
+      }
+      return statements;
+    }
+
+    @Override
+    public String toString() {
+      return "V" + version + " (" + description + ")";
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package model.database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SqliteConnectionPool holds the long-lived connections to the sqlite database. It has a single
+ * writer connection, which is lent to one thread at a time (the same thread may borrow it
+ * repeatedly), and a bounded number of reader connections, which are opened lazily. A thread which
+ * holds the writer connection (for example during a UnitOfWork) gets the writer connection for its
+ * queries too, so that it sees its own uncommitted changes.
+ *
+ * <p>Every connection is checked before being lent, and replaced if it is no longer valid. The
+ * check queries the database only if an operation on the connection failed, or it was idle for
+ * longer than a threshold (database.validationIdleMillis); otherwise only the closed flag is read,
+ * so borrowing a connection for a short query does not cost an extra one.
+ *
+ * @author Bori Fazakas
+ */
+public class SqliteConnectionPool {
+  /** The number of milliseconds to wait for a connection before giving up. */
+  private static final long BORROW_TIMEOUT_MILLIS = 10000;
+
+  private final int maxReadConnections;
+  private final BlockingQueue<PooledConnection> idleReadConnections;
+  private final List<PooledConnection> readConnections = new ArrayList<>();
+  private final ReentrantLock writeLock = new ReentrantLock(true);
+  private PooledConnection writeConnection;
+  private volatile boolean closed = false;
+
+  SqliteConnectionPool(int maxReadConnections) {
+    this.maxReadConnections = maxReadConnections;
+    idleReadConnections = new LinkedBlockingQueue<>(maxReadConnections);
+  }
+
+  /**
+   * Lends an idle reader connection, opens a new one if the limit is not reached yet, or waits for
+   * one to be returned otherwise.
+   *
+   * @throws SQLException if the pool is closed, or no connection became available in time.
+   */
+  PooledConnection getReadConnection() throws SQLException {
+    guaranteeOpen();
+    if (writeLock.isHeldByCurrentThread()) {
+      return getWriteConnection();
+    }
+    PooledConnection connection = idleReadConnections.poll();
+    if (connection == null) {
+      connection = openReadConnectionIfAllowed();
+    }
+    if (connection == null) {
+      try {
+        connection = idleReadConnections.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for a database connection");
+      }
+      if (connection == null) {
+        throw new SQLException("Timed out waiting for a database connection");
+      }
+    }
+    return validated(connection);
+  }
+
+  /**
+   * Lends the writer connection, waiting until the thread currently holding it returns it.
+   *
+   * @throws SQLException if the pool is closed, or the connection was not returned in time.
+   */
+  PooledConnection getWriteConnection() throws SQLException {
+    guaranteeOpen();
+    try {
+      if (!writeLock.tryLock(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("Timed out waiting for the database writer connection");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for the database writer connection");
+    }
+    try {
+      if (writeConnection == null) {
+        writeConnection = new PooledConnection(this, true);
+      } else if (writeLock.getHoldCount() == 1 && !writeConnection.isUsable()) {
+        writeConnection.closePhysically();
+        writeConnection = new PooledConnection(this, true);
+      }
+      return writeConnection;
+    } catch (SQLException e) {
+      writeLock.unlock();
+      throw e;
+    }
+  }
+
+  /** Takes back a connection which was lent by the pool. */
+  void release(PooledConnection connection) {
+    connection.markReleased();
+    if (connection.isWritable()) {
+      writeLock.unlock();
+      if (closed && !writeLock.isLocked()) {
+        connection.closePhysically();
+      }
+    } else if (closed || !idleReadConnections.offer(connection)) {
+      connection.closePhysically();
+    }
+  }
+
+  /** Closes all the idle connections, and the lent ones when they are returned. */
+  void shutdown() {
+    closed = true;
+    PooledConnection idleConnection;
+    while ((idleConnection = idleReadConnections.poll()) != null) {
+      idleConnection.closePhysically();
+    }
+    if (writeLock.tryLock()) {
+      try {
+        if (writeConnection != null) {
+          writeConnection.closePhysically();
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  private synchronized PooledConnection openReadConnectionIfAllowed() throws SQLException {
+    if (readConnections.size() >= maxReadConnections) {
+      return null;
+    }
+    PooledConnection connection = new PooledConnection(this, false);
+    readConnections.add(connection);
+    return connection;
+  }
+
+  /** Replaces the reader connection if it is broken. */
+  private PooledConnection validated(PooledConnection connection) throws SQLException {
+    if (connection.isUsable()) {
+      return connection;
+    }
+    connection.closePhysically();
+    synchronized (this) {
+      readConnections.remove(connection);
+      PooledConnection newConnection = new PooledConnection(this, false);
+      readConnections.add(newConnection);
+      return newConnection;
+    }
+  }
+
+  private void guaranteeOpen() throws SQLException {
+    if (closed) {
+      throw new SQLException("The database connection pool is shut down");
+    }
+  }
+}
@@ -1,27 +1,122 @@
 package model.database;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * SqliteDatabaseConnectionFactory is responsible for creating exactly one instance of database
- * connection (remark thhe singleton pattern), used in all repositories. If more connections would
- * be used, the database would get locked and updates would not be possible.
+ * SqliteDatabaseConnectionFactory is the access point of all repositories to the database. Instead
+ * of opening a new connection for every query, it lends long-lived connections from a
+ * SqliteConnectionPool: exactly one writer connection (so that concurrent updates can not lock the
+ * database) and a bounded number of reader connections.
+ *
+ * <p>The database file can be configured with the system property "database.file" (by default
+ * project_management_app.db in the working directory), and the number of reader connections with
+ * "database.readConnections". When the pool is opened, the schema of the database is brought up to
+ * date by the SchemaMigrator. The pool is shut down, and all the connections are closed, when the
+ * application exits.
+ *
+ * <p>Every connection is configured with the SqliteTuningProfile (by default in the rollback
+ * journal mode, since WAL does not work on a network drive). In WAL mode, a WalCheckpointScheduler
+ * keeps the write-ahead log short.
  *
  * @author Bori Fazakas
  */
 public class SqliteDatabaseConnectionFactory {
+  private static final String DATABASE_FILE_PROPERTY = "database.file";
+  private static final String DEFAULT_DATABASE_FILE = "project_management_app.db";
+
+  private static final String READ_CONNECTIONS_PROPERTY = "database.readConnections";
+  private static final int DEFAULT_READ_CONNECTIONS = 4;
+
+  private static final SqliteTuningProfile tuningProfile =
+      SqliteTuningProfile.fromSystemProperties();
+
+  private static SqliteConnectionPool pool;
+  private static WalCheckpointScheduler checkpointScheduler;
+  private static boolean schemaMigrated = false;
 
-  public static Connection getConnection() {
+  static {
     try {
       Class.forName("org.sqlite.JDBC");
-      return DriverManager.getConnection(
-          "jdbc:sqlite:project_management_app" + ".db" + "?foreign_keys=on");
-    } catch (ClassNotFoundException | SQLException e) {
+    } catch (ClassNotFoundException e) {
       e.printStackTrace();
       System.exit(1);
     }
-    return null;
+  }
+
+  /**
+   * Lends a connection which may only be used for queries. It must be closed after use, which
+   * returns it to the pool.
+   *
+   * @return a pooled reader connection.
+   * @throws SQLException if no connection could be obtained.
+   */
+  public static PooledConnection getReadConnection() throws SQLException {
+    return getPool().getReadConnection();
+  }
+
+  /**
+   * Lends the single writer connection. While it is lent, other threads requesting it have to wait.
+   * It must be closed after use, which returns it to the pool.
+   *
+   * @return the pooled writer connection.
+   * @throws SQLException if the connection could not be obtained.
+   */
+  public static PooledConnection getWriteConnection() throws SQLException {
+    return getPool().getWriteConnection();
+  }
+
+  /** Closes all the pooled connections. Connections requested afterwards are refused. */
+  public static synchronized void shutdown() {
+    if (checkpointScheduler != null) {
+      checkpointScheduler.shutdown();
+    }
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  /** Opens a new physical connection to the database. Used only by the pool. */
+  static Connection createConnection() throws SQLException {
+    return tuningProfile
+        .toConfig()
+        .createConnection(
+            "jdbc:sqlite:" + System.getProperty(DATABASE_FILE_PROPERTY, DEFAULT_DATABASE_FILE));
+  }
+
+  /** @return the settings applied to the connections. */
+  public static SqliteTuningProfile getTuningProfile() {
+    return tuningProfile;
+  }
+
+  /**
+   * @return the statistics of the WAL checkpoints run in the background, or null if the database is
+   *     not in WAL mode, or the periodic checkpoints are disabled.
+   */
+  @Nullable
+  public static synchronized WalCheckpointScheduler.CheckpointStatistics getCheckpointStatistics() {
+    return checkpointScheduler == null ? null : checkpointScheduler.getStatistics();
+  }
+
+  private static synchronized SqliteConnectionPool getPool() throws SQLException {
+    if (pool == null) {
+      int readConnections =
+          Math.max(1, Integer.getInteger(READ_CONNECTIONS_PROPERTY, DEFAULT_READ_CONNECTIONS));
+      pool = new SqliteConnectionPool(readConnections);
+      Runtime.getRuntime().addShutdownHook(new Thread(SqliteDatabaseConnectionFactory::shutdown));
+      if (tuningProfile.isWal() && tuningProfile.getCheckpointIntervalSeconds() > 0) {
+        checkpointScheduler =
+            new WalCheckpointScheduler(pool, tuningProfile.getCheckpointIntervalSeconds());
+      }
+    }
+    if (!schemaMigrated) {
+      try (PooledConnection c = pool.getWriteConnection()) {
+        SchemaMigrator.migrate(c);
+      }
+      schemaMigrated = true;
+    }
+    return pool;
   }
 }
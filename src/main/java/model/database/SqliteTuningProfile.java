@@ -0,0 +1,120 @@
+package model.database;
+
+import org.sqlite.SQLiteConfig;
+
+/**
+ * SqliteTuningProfile holds the settings applied to every connection opened to the database. By
+ * default, the database runs in the rollback journal (DELETE) mode with synchronous=FULL, and it is
+ * not mapped into memory, which are the defaults of sqlite.
+ *
+ * <p>The database file may be kept on a shared network drive and opened by the clients of several
+ * hosts. The write-ahead-log (WAL) mode, in which the readers don't block the writer and the writer
+ * doesn't block the readers, and memory mapping both rely on shared memory, so they only work if
+ * all the processes using the database run on the same host: over a network filesystem the clients
+ * may miss each other's writes, or corrupt the database. Therefore they are only enabled when
+ * requested with the system properties below, for a database on a local disk. In WAL mode the
+ * default is synchronous=NORMAL, which syncs the disk only at checkpoints instead of at every
+ * commit (a commit may be lost at a power failure, but the database can not be corrupted).
+ *
+ * <p>Every setting can be overridden with a system property:
+ *
+ * <ul>
+ *   <li>"database.journalMode": the journal mode (DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF). WAL
+ *       must only be used if the database is on a local disk.
+ *   <li>"database.synchronous": the synchronous mode (OFF, NORMAL, FULL).
+ *   <li>"database.mmapSize": the number of bytes of the database file mapped into memory, by
+ *       default 0. It must only be positive if the database is on a local disk.
+ *   <li>"database.cacheSize": the size of the page cache of a connection, in pages if positive, in
+ *       kibibytes if negative.
+ *   <li>"database.busyTimeout": the number of milliseconds to wait for a lock held by another
+ *       process, before failing.
+ *   <li>"database.checkpointIntervalSeconds": the period of the WAL checkpoints, or 0 to rely on
+ *       the automatic checkpoints of sqlite only.
+ * </ul>
+ *
+ * @author Bori Fazakas
+ */
+public class SqliteTuningProfile {
+  private static final String JOURNAL_MODE_PROPERTY = "database.journalMode";
+  private static final String SYNCHRONOUS_PROPERTY = "database.synchronous";
+  private static final String MMAP_SIZE_PROPERTY = "database.mmapSize";
+  private static final String CACHE_SIZE_PROPERTY = "database.cacheSize";
+  private static final String BUSY_TIMEOUT_PROPERTY = "database.busyTimeout";
+  private static final String CHECKPOINT_INTERVAL_PROPERTY = "database.checkpointIntervalSeconds";
+
+  private static final long DEFAULT_MMAP_SIZE = 0;
+  private static final int DEFAULT_CACHE_SIZE = -8 * 1024; // 8 MiB
+  private static final int DEFAULT_BUSY_TIMEOUT_MILLIS = 5000;
+  private static final int DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 30;
+
+  private final SQLiteConfig.JournalMode journalMode;
+  private final SQLiteConfig.SynchronousMode synchronousMode;
+  private final long mmapSize;
+  private final int cacheSize;
+  private final int busyTimeoutMillis;
+  private final int checkpointIntervalSeconds;
+
+  private SqliteTuningProfile(
+      SQLiteConfig.JournalMode journalMode,
+      SQLiteConfig.SynchronousMode synchronousMode,
+      long mmapSize,
+      int cacheSize,
+      int busyTimeoutMillis,
+      int checkpointIntervalSeconds) {
+    this.journalMode = journalMode;
+    this.synchronousMode = synchronousMode;
+    this.mmapSize = mmapSize;
+    this.cacheSize = cacheSize;
+    this.busyTimeoutMillis = busyTimeoutMillis;
+    this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+  }
+
+  /** @return the profile described by the system properties, with defaults for the missing ones. */
+  static SqliteTuningProfile fromSystemProperties() {
+    SQLiteConfig.JournalMode journalMode =
+        SQLiteConfig.JournalMode.valueOf(
+            System.getProperty(JOURNAL_MODE_PROPERTY, SQLiteConfig.JournalMode.DELETE.name()));
+    SQLiteConfig.SynchronousMode defaultSynchronousMode =
+        journalMode == SQLiteConfig.JournalMode.WAL
+            ? SQLiteConfig.SynchronousMode.NORMAL
+            : SQLiteConfig.SynchronousMode.FULL;
+    return new SqliteTuningProfile(
+        journalMode,
+        SQLiteConfig.SynchronousMode.valueOf(
+            System.getProperty(SYNCHRONOUS_PROPERTY, defaultSynchronousMode.name())),
+        Math.max(0, Long.getLong(MMAP_SIZE_PROPERTY, DEFAULT_MMAP_SIZE)),
+        Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE),
+        Math.max(0, Integer.getInteger(BUSY_TIMEOUT_PROPERTY, DEFAULT_BUSY_TIMEOUT_MILLIS)),
+        Math.max(
+            0,
+            Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY, DEFAULT_CHECKPOINT_INTERVAL_SECONDS)));
+  }
+
+  /** @return the configuration of a new connection, with the foreign keys enforced. */
+  SQLiteConfig toConfig() {
+    SQLiteConfig config = new SQLiteConfig();
+    config.enforceForeignKeys(true);
+    config.setJournalMode(journalMode);
+    config.setSynchronous(synchronousMode);
+    config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+    config.setCacheSize(cacheSize);
+    config.setBusyTimeout(busyTimeoutMillis);
+    return config;
+  }
+
+  /** @return true if and only if the database runs in WAL mode, so it needs checkpoints. */
+  boolean isWal() {
+    return journalMode == SQLiteConfig.JournalMode.WAL;
+  }
+
+  int getCheckpointIntervalSeconds() {
+    return checkpointIntervalSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "journal_mode=%s synchronous=%s mmap_size=%d cache_size=%d busy_timeout=%dms",
+        journalMode, synchronousMode, mmapSize, cacheSize, busyTimeoutMillis);
+  }
+}
@@ -0,0 +1,110 @@
+package model.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache keeps the prepared statements of one pooled connection, keyed by their sql text,
+ * so that frequently executed queries are parsed only once. Queries built dynamically (for example
+ * with different ORDER BY clauses) simply get their own entries. When the cache is full, the least
+ * recently used statement is closed and evicted.
+ *
+ * <p>Remark that the statements handed out by the cache must not be closed by the caller, but their
+ * result sets must be.
+ *
+ * @author Bori Fazakas
+ */
+public class StatementCache {
+  private static final AtomicLong totalHits = new AtomicLong();
+  private static final AtomicLong totalMisses = new AtomicLong();
+  private static final AtomicLong totalEvictions = new AtomicLong();
+
+  private final Connection connection;
+  private final Map<String, PreparedStatement> statements;
+  private long hits = 0;
+  private long misses = 0;
+
+  StatementCache(Connection connection, int capacity) {
+    this.connection = connection;
+    this.statements =
+        new LinkedHashMap<>(capacity, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > capacity) {
+              closeQuietly(eldest.getValue());
+              totalEvictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached statement for the given sql, with its parameters cleared, or prepares and
+   * caches a new one if there is none yet.
+   *
+   * @param sql is the text of the statement.
+   * @return the prepared statement.
+   * @throws SQLException if the statement could not be prepared.
+   */
+  PreparedStatement prepareStatement(String sql) throws SQLException {
+    PreparedStatement statement = statements.get(sql);
+    if (statement != null && !statement.isClosed()) {
+      hits++;
+      totalHits.incrementAndGet();
+      statement.clearParameters();
+      return statement;
+    }
+    misses++;
+    totalMisses.incrementAndGet();
+    statement = connection.prepareStatement(sql);
+    statements.put(sql, statement);
+    return statement;
+  }
+
+  /** Closes all the cached statements. */
+  void clear() {
+    Iterator<PreparedStatement> iterator = statements.values().iterator();
+    while (iterator.hasNext()) {
+      closeQuietly(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  public long getHitCount() {
+    return hits;
+  }
+
+  public long getMissCount() {
+    return misses;
+  }
+
+  /** @return the number of cache hits summed over all the connections. */
+  public static long getTotalHitCount() {
+    return totalHits.get();
+  }
+
+  /** @return the number of cache misses (i.e. sql parses) summed over all the connections. */
+  public static long getTotalMissCount() {
+    return totalMisses.get();
+  }
+
+  /** @return the number of statements evicted from the caches of all the connections. */
+  public static long getTotalEvictionCount() {
+    return totalEvictions.get();
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      e.printStackTrace();
+    }
+  }
+}
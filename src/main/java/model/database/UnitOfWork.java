@@ -0,0 +1,115 @@
+package model.database;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * UnitOfWork groups all the database operations of a manager operation, possibly spanning several
+ * repositories, into a single transaction. While it is open, the writer connection is bound to the
+ * current thread: every repository call of this thread, both queries and updates, is executed on
+ * it, so the operation sees its own changes, and no other thread can write in the meantime. The
+ * changes are written to the disk at once, when the unit is committed.
+ *
+ * <p>It is meant to be used in a try-with-resources block:
+ *
+ * <pre>
+ * try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+ *   ... repository calls ...
+ *   unitOfWork.commit();
+ * }
+ * </pre>
+ *
+ * If the block is left without commit (for example because of an exception), all the changes are
+ * rolled back. A unit begun inside another one is nested with a savepoint: rolling it back only
+ * undoes its own changes, while committing it makes its changes part of the outer unit.
+ *
+ * @author Bori Fazakas
+ */
+public class UnitOfWork implements AutoCloseable {
+  private final PooledConnection connection;
+  /** The savepoint of a nested unit, or null for the outermost unit. */
+  @Nullable private final Savepoint savepoint;
+
+  private boolean finished = false;
+
+  private UnitOfWork(PooledConnection connection) throws SQLException {
+    this.connection = connection;
+    this.savepoint = connection.beginTransaction();
+  }
+
+  /**
+   * Begins a new unit of work on the current thread, waiting for the writer connection if another
+   * thread holds it.
+   *
+   * @throws SQLException if the transaction could not be started.
+   */
+  public static UnitOfWork begin() throws SQLException {
+    PooledConnection connection = SqliteDatabaseConnectionFactory.getWriteConnection();
+    try {
+      return new UnitOfWork(connection);
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the connection bound to this unit. Remark that the repositories reach it through
+   * SqliteDatabaseConnectionFactory as well.
+   */
+  public PooledConnection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Applies the changes of this unit. For the outermost unit, it commits the transaction.
+   *
+   * @throws SQLException if the changes could not be applied, in which case they are rolled back.
+   */
+  public void commit() throws SQLException {
+    guaranteeNotFinished();
+    finished = true;
+    connection.commitTransaction(savepoint);
+  }
+
+  /**
+   * Creates a savepoint, to which the changes of this unit can be partially rolled back.
+   *
+   * @throws SQLException if the savepoint could not be created.
+   */
+  public Savepoint setSavepoint() throws SQLException {
+    guaranteeNotFinished();
+    return connection.setSavepoint();
+  }
+
+  /**
+   * Undoes the changes made since the savepoint was created, while keeping the unit open.
+   *
+   * @throws SQLException if the rollback failed.
+   */
+  public void rollbackTo(Savepoint savepoint) throws SQLException {
+    guaranteeNotFinished();
+    connection.rollbackToSavepoint(savepoint);
+  }
+
+  /** Rolls back the changes of this unit, unless it was committed, and releases the connection. */
+  @Override
+  public void close() throws SQLException {
+    try {
+      if (!finished) {
+        finished = true;
+        connection.rollbackTransaction(savepoint);
+      }
+    } finally {
+      connection.close();
+    }
+  }
+
+  private void guaranteeNotFinished() throws SQLException {
+    if (finished) {
+      throw new SQLException("The unit of work is already finished");
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package model.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WalCheckpointScheduler periodically copies the content of the write-ahead log back into the
+ * database file, on a background thread. The checkpoints are PASSIVE: they never wait for the
+ * readers or the writer, they only copy what can be copied without blocking anyone. This way the
+ * log does not grow while the application is busy, and the automatic checkpoints of sqlite, which
+ * run on the thread of a committing writer, are rarely needed.
+ *
+ * <p>The outcome of the checkpoints is recorded in CheckpointStatistics.
+ *
+ * @author Bori Fazakas
+ */
+public class WalCheckpointScheduler {
+  private static final String CHECKPOINT_STATEMENT = "PRAGMA wal_checkpoint(PASSIVE)";
+
+  private final SqliteConnectionPool pool;
+  private final ScheduledExecutorService executor;
+  private final CheckpointStatistics statistics = new CheckpointStatistics();
+
+  /**
+   * Starts the scheduler.
+   *
+   * @param pool provides the connection on which the checkpoints are run.
+   * @param intervalSeconds is the time between two checkpoints.
+   */
+  WalCheckpointScheduler(SqliteConnectionPool pool, int intervalSeconds) {
+    this.pool = pool;
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "wal-checkpoint");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleWithFixedDelay(
+        this::checkpoint, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Runs a passive checkpoint, and records its outcome. */
+  void checkpoint() {
+    long startTime = System.nanoTime();
+    // a passive checkpoint does not need the writer connection, sqlite serializes it by itself
+    try (PooledConnection c = pool.getReadConnection()) {
+      PreparedStatement checkpointSt = c.prepareStatement(CHECKPOINT_STATEMENT);
+      try (ResultSet result = checkpointSt.executeQuery()) {
+        if (result.next()) {
+          statistics.record(
+              result.getInt(1) != 0,
+              result.getInt(2),
+              result.getInt(3),
+              System.nanoTime() - startTime);
+        }
+      }
+    } catch (SQLException e) {
+      statistics.recordFailure();
+    }
+  }
+
+  /** @return a snapshot of the statistics of the checkpoints run so far. */
+  public CheckpointStatistics getStatistics() {
+    return statistics.copy();
+  }
+
+  /** Stops the scheduler. The running checkpoint, if any, is finished. */
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  /** The statistics of the checkpoints run by the scheduler. */
+  public static class CheckpointStatistics {
+    private long checkpoints = 0;
+    private long busyCheckpoints = 0;
+    private long failedCheckpoints = 0;
+    private int lastLogFrames = 0;
+    private int lastCheckpointedFrames = 0;
+    private long totalCheckpointedFrames = 0;
+    private long totalDurationNanos = 0;
+
+    private synchronized void record(
+        boolean busy, int logFrames, int checkpointedFrames, long durationNanos) {
+      checkpoints++;
+      if (busy) {
+        busyCheckpoints++;
+      }
+      lastLogFrames = logFrames;
+      lastCheckpointedFrames = checkpointedFrames;
+      totalCheckpointedFrames += Math.max(0, checkpointedFrames);
+      totalDurationNanos += durationNanos;
+    }
+
+    private synchronized void recordFailure() {
+      failedCheckpoints++;
+    }
+
+    private synchronized CheckpointStatistics copy() {
+      CheckpointStatistics copy = new CheckpointStatistics();
+      copy.checkpoints = checkpoints;
+      copy.busyCheckpoints = busyCheckpoints;
+      copy.failedCheckpoints = failedCheckpoints;
+      copy.lastLogFrames = lastLogFrames;
+      copy.lastCheckpointedFrames = lastCheckpointedFrames;
+      copy.totalCheckpointedFrames = totalCheckpointedFrames;
+      copy.totalDurationNanos = totalDurationNanos;
+      return copy;
+    }
+
+    /** @return the number of completed checkpoints. */
+    public long getCheckpointCount() {
+      return checkpoints;
+    }
+
+    /** @return the number of checkpoints which could not copy the whole log, because of a lock. */
+    public long getBusyCheckpointCount() {
+      return busyCheckpoints;
+    }
+
+    /** @return the number of checkpoints which failed with an exception. */
+    public long getFailedCheckpointCount() {
+      return failedCheckpoints;
+    }
+
+    /** @return the number of frames in the log at the last checkpoint. */
+    public int getLastLogFrames() {
+      return lastLogFrames;
+    }
+
+    /** @return the number of frames copied into the database by the last checkpoint. */
+    public int getLastCheckpointedFrames() {
+      return lastCheckpointedFrames;
+    }
+
+    /** @return the average duration of a checkpoint. */
+    public double getAverageDurationMillis() {
+      return checkpoints == 0 ? 0 : totalDurationNanos / 1e6 / checkpoints;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "checkpoints=%d busy=%d failed=%d lastLogFrames=%d lastCheckpointed=%d"
+              + " totalCheckpointed=%d avgDuration=%.2fms",
+          checkpoints,
+          busyCheckpoints,
+          failedCheckpoints,
+          lastLogFrames,
+          lastCheckpointedFrames,
+          totalCheckpointedFrames,
+          getAverageDurationMillis());
+    }
+  }
+}
@@ -53,25 +53,34 @@ public class Project {
 
   /**
    * PorjectSorter is used for the database and specifies by which attribute the projects must be
-   * sorted when returned from the database.
+   * sorted when returned from the database. The same order can be applied to a list of projects in
+   * memory, with the comparator of the sorter type.
    */
   public enum SorterType {
-    NONE("true"),
-    DEADLINE("Deadline"),
-    STATUS("p.StatusId"),
-    IMPORTANCE("p.ImportanceId");
+    NONE("true", (p1, p2) -> 0),
+    DEADLINE("p.DeadlineDay", Comparator.comparing(Project::getDeadline)),
+    // the ids of the statuses and importances in the database follow the order of the enums
+    STATUS("p.StatusId", Comparator.comparing(Project::getStatus)),
+    IMPORTANCE("p.ImportanceId", Comparator.comparing(Project::getImportance));
 
     private String columnName; // specifies the name of the column in the database on which
     // sorting is
     // applied.
+    private final Comparator<Project> comparator;
 
-    SorterType(String columnName) {
+    SorterType(String columnName, Comparator<Project> comparator) {
       this.columnName = columnName;
+      this.comparator = comparator;
     }
 
     public String getColumnName() {
       return this.columnName;
     }
+
+    /** @return the comparator which orders the projects like the database does. */
+    public Comparator<Project> getComparator() {
+      return comparator;
+    }
   }
 
   /**
@@ -95,6 +104,9 @@ public class Project {
     }
   }
 
+  /** Orders the projects by their ids. Used to break the ties of the other orders. */
+  static final Comparator<Project> ID_ORDER = Comparator.comparingInt(project -> project.id);
+
   /** Unique identifier of the project in the database. */
   private int id;
   /** The title must be unique inside the team, but not overall. */
@@ -149,6 +161,21 @@ public class Project {
     this.importance = importance;
   }
 
+  /** Creates a snapshot of project, which is not affected by the later changes of project. */
+  public Project(Project project) {
+    this(
+        project.id,
+        project.title,
+        project.teamId,
+        project.deadline,
+        project.status,
+        project.supervisorId,
+        project.assigneeId,
+        project.finishingDate,
+        project.importance);
+    this.description = project.description;
+  }
+
   public int getId() throws InexistentDatabaseEntityException {
     return this.id;
   }
@@ -224,4 +251,21 @@ public class Project {
   public void setImportance(Importance importance) {
     this.importance = importance;
   }
+
+  /**
+   * Returns the status of the project with respect to its deadline, on the given day, or null if
+   * the project is finished, but its finishing date is unknown.
+   */
+  @Nullable
+  public DeadlineStatus getDeadlineStatus(LocalDate today) {
+    if (status != Status.FINISHED) {
+      return deadline.isBefore(today) ? DeadlineStatus.OVERDUE : DeadlineStatus.IN_TIME_TO_FINISH;
+    }
+    if (finishingDate == null) {
+      return null;
+    }
+    return finishingDate.isAfter(deadline)
+        ? DeadlineStatus.FINISHED_LATE
+        : DeadlineStatus.FINISHED_IN_TIME;
+  }
 }
@@ -0,0 +1,86 @@
+package model.project;
+
+import model.AsyncPropertyChangeSupport;
+import org.jetbrains.annotations.Nullable;
+
+import java.beans.PropertyChangeEvent;
+
+/**
+ * ProjectChangeEvent is fired by the ProjectManager whenever a project is created, updated, deleted
+ * or its status is changed. Besides the name of the change (one of
+ * ProjectManager.ProjectChangeablePropertyName), it carries the ids of the affected project and of
+ * its team, and the snapshots of the project before and after the change, so that listeners can
+ * decide whether they are concerned, and update their views without querying the database.
+ *
+ * <p>The old value is the project before the change (null if it was created), and the new value is
+ * the project after the change (null if it was deleted).
+ *
+ * @author Bori Fazakas
+ */
+public class ProjectChangeEvent extends PropertyChangeEvent
+    implements AsyncPropertyChangeSupport.CoalescableEvent {
+  private final int projectId;
+  private final int teamId;
+
+  public ProjectChangeEvent(
+      Object source,
+      ProjectManager.ProjectChangeablePropertyName propertyName,
+      int projectId,
+      int teamId,
+      @Nullable Project oldProject,
+      @Nullable Project newProject) {
+    super(source, propertyName.toString(), oldProject, newProject);
+    this.projectId = projectId;
+    this.teamId = teamId;
+  }
+
+  public int getProjectId() {
+    return projectId;
+  }
+
+  public int getTeamId() {
+    return teamId;
+  }
+
+  /** @return the project before the change, or null if it was created. */
+  @Nullable
+  public Project getOldProject() {
+    return (Project) getOldValue();
+  }
+
+  /** @return the project after the change, or null if it was deleted. */
+  @Nullable
+  public Project getNewProject() {
+    return (Project) getNewValue();
+  }
+
+  /** Two consecutive changes of the same kind of the same project are coalesced into one. */
+  @Override
+  @Nullable
+  public PropertyChangeEvent coalesceWith(PropertyChangeEvent previous) {
+    ProjectChangeEvent previousEvent = (ProjectChangeEvent) previous;
+    if (previousEvent.projectId != projectId) {
+      return null;
+    }
+    return new ProjectChangeEvent(
+        getSource(),
+        ProjectManager.ProjectChangeablePropertyName.valueOf(getPropertyName()),
+        projectId,
+        teamId,
+        previousEvent.getOldProject(),
+        getNewProject());
+  }
+
+  /**
+   * @return true if the user with the given id is the assignee or the supervisor of the project,
+   *     either before or after the change.
+   */
+  public boolean concernsUser(int userId) {
+    return concernsUser(getOldProject(), userId) || concernsUser(getNewProject(), userId);
+  }
+
+  private static boolean concernsUser(@Nullable Project project, int userId) {
+    return project != null
+        && (project.getAssigneeId() == userId || project.getSupervisorId() == userId);
+  }
+}
@@ -3,6 +3,7 @@ package model.project;
 import model.InexistentDatabaseEntityException;
 import model.Manager;
 import model.UnauthorisedOperationException;
+import model.database.UnitOfWork;
 import model.project.exceptions.*;
 import model.team.Team;
 import model.team.exceptions.IllegalMemberRemovalException;
@@ -12,11 +13,13 @@ import model.user.User;
 import model.user.exceptions.EmptyFieldsException;
 import model.user.exceptions.InexistentUserException;
 import model.user.exceptions.NoSignedInUserException;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ProjectManager is responsible for executing all the commands needed for the application that are
@@ -77,22 +80,30 @@ public class ProjectManager extends Manager {
     User currentUser = getMandatoryCurrentUser();
     User assignee = getMandatoryUser(assigneeName);
     Team team = getMandatoryTeam(teamId);
-    // check that there is no other project with the same name
-    if (projectRepository.getProject(teamId, projectName).isPresent()) {
-      throw new DuplicateProjectNameException(projectName, team.getName());
-    }
-    // check if the new deadline of project is outdated (before the current date)
-    if (isOutdatedDate(deadline)) {
-      throw new InvalidDeadlineException();
+    Project savedProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      // check that there is no other project with the same name
+      if (projectRepository.getProject(teamId, projectName).isPresent()) {
+        throw new DuplicateProjectNameException(projectName, team.getName());
+      }
+      // check if the new deadline of project is outdated (before the current date)
+      if (isOutdatedDate(deadline)) {
+        throw new InvalidDeadlineException();
+      }
+      // save project
+      Project.SavableProject project =
+          new Project.SavableProject(
+              projectName, teamId, deadline, currentUser.getId(), assignee.getId(), importance);
+      project.setDescription(description);
+      savedProject = projectRepository.saveProject(project);
+      unitOfWork.commit();
     }
-    // save project
-    Project.SavableProject project =
-        new Project.SavableProject(
-            projectName, teamId, deadline, currentUser.getId(), assignee.getId(), importance);
-    project.setDescription(description);
-    projectRepository.saveProject(project);
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.CREATE_PROJECT.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.CREATE_PROJECT,
+        savedProject.getId(),
+        teamId,
+        null,
+        savedProject);
   }
 
   /**
@@ -132,32 +143,43 @@ public class ProjectManager extends Manager {
           InexistentUserException, DuplicateProjectNameException, UnregisteredMemberRoleException,
           InvalidDeadlineException {
     User currentUser = getMandatoryCurrentUser();
-    Project project = getMandatoryProject(projectId);
-    guaranteeUserIsSupervisor(
-        currentUser, project, "change data of project", "they are not the " + "supervisor");
-    User assignee = getMandatoryUser(newAssigneeName);
-    guaranteeUserIsTeamMember(assignee, project.getTeamId(), "be assignee");
-    User supervisor = getMandatoryUser(newSupervisorName);
-    guaranteeUserIsTeamMember(supervisor, project.getTeamId(), "be supervisor");
-    // check that there is no other project with the new name
-    if (!newProjectTitle.equals(project.getTitle())
-        && projectRepository.getProject(project.getTeamId(), newProjectTitle).isPresent()) {
-      throw new DuplicateProjectNameException(newProjectTitle);
-    }
-    // check that the new deadline of the project is valid
-    if (!project.getDeadline().equals(newDeadline) && isOutdatedDate(newDeadline)) {
-      throw new InvalidDeadlineException();
+    Project project;
+    Project oldProject;
+    // the checks and the update are performed on the same snapshot of the database
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      guaranteeUserIsSupervisor(
+          currentUser, project, "change data of project", "they are not the " + "supervisor");
+      User assignee = getMandatoryUser(newAssigneeName);
+      guaranteeUserIsTeamMember(assignee, project.getTeamId(), "be assignee");
+      User supervisor = getMandatoryUser(newSupervisorName);
+      guaranteeUserIsTeamMember(supervisor, project.getTeamId(), "be supervisor");
+      // check that there is no other project with the new name
+      if (!newProjectTitle.equals(project.getTitle())
+          && projectRepository.getProject(project.getTeamId(), newProjectTitle).isPresent()) {
+        throw new DuplicateProjectNameException(newProjectTitle);
+      }
+      // check that the new deadline of the project is valid
+      if (!project.getDeadline().equals(newDeadline) && isOutdatedDate(newDeadline)) {
+        throw new InvalidDeadlineException();
+      }
+      // update project
+      oldProject = new Project(project);
+      project.setAssigneeId(assignee.getId());
+      project.setSupervisorId(supervisor.getId());
+      project.setDescription(newDescription);
+      project.setTitle(newProjectTitle);
+      project.setDeadline(newDeadline);
+      project.setImportance(importance);
+      projectRepository.updateProject(project);
+      unitOfWork.commit();
     }
-    // update project
-    project.setAssigneeId(assignee.getId());
-    project.setSupervisorId(supervisor.getId());
-    project.setDescription(newDescription);
-    project.setTitle(newProjectTitle);
-    project.setDeadline(newDeadline);
-    project.setImportance(importance);
-    projectRepository.updateProject(project);
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.UPDATE_PROJECT.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.UPDATE_PROJECT,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -176,39 +198,21 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException {
     User currentUser = getMandatoryCurrentUser();
-    Project project = getMandatoryProject(projectId);
-    guaranteeUserIsSupervisor(
-        currentUser, project, "delete project", "they are not the " + "supervisor");
-    commentRepository.deleteAllCommentsOfProject(projectId);
-    projectRepository.deleteProject(projectId);
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.DELETE_PROJECT.toString(), OLD_VALUE, NEW_VALUE);
-  }
-
-  /**
-   * Deletes all the projects of a given team, safely, after first deleting all of its their
-   * comments.
-   *
-   * @param teamId is the id of the team whose projects are deleted.
-   * @throws SQLException if the operation could not be performed in the database.
-   * @throws InexistentDatabaseEntityException should never occur.
-   * @throws InexistentUserException should never occur.
-   */
-  public void deleteAllProjectsOfTeam(int teamId)
-      throws SQLException, InexistentDatabaseEntityException, InexistentUserException {
-    List<Project> projectsOfTeam =
-        getProjectsOfTeam(
-            teamId,
-            null,
-            null,
-            EnumSet.allOf(Project.Status.class),
-            EnumSet.allOf(Project.DeadlineStatus.class),
-            Project.SorterType.NONE,
-            false);
-    for (Project project : projectsOfTeam) {
-      commentRepository.deleteAllCommentsOfProject(project.getId());
-      projectRepository.deleteProject(project.getId());
+    Project project;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      guaranteeUserIsSupervisor(
+          currentUser, project, "delete project", "they are not the " + "supervisor");
+      commentRepository.deleteAllCommentsOfProject(projectId);
+      projectRepository.deleteProject(projectId);
+      unitOfWork.commit();
     }
+    fireProjectChange(
+        ProjectChangeablePropertyName.DELETE_PROJECT,
+        projectId,
+        project.getTeamId(),
+        project,
+        null);
   }
 
   /**
@@ -223,16 +227,27 @@ public class ProjectManager extends Manager {
   public void setProjectInProgress(int projectId)
       throws InexistentProjectException, SQLException, InexistentDatabaseEntityException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    if (project.getStatus() == Project.Status.TO_DO) {
-      project.setStatus(Project.Status.IN_PROGRESS);
-      projectRepository.updateProject(project);
-    } else {
-      throw new IllegalProjectStatusChangeException(
-          project.getStatus(), Project.Status.IN_PROGRESS);
+    Project project;
+    Project oldProject;
+    // the status is checked and changed on the same snapshot of the database
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      if (project.getStatus() == Project.Status.TO_DO) {
+        project.setStatus(Project.Status.IN_PROGRESS);
+        projectRepository.updateProject(project);
+      } else {
+        throw new IllegalProjectStatusChangeException(
+            project.getStatus(), Project.Status.IN_PROGRESS);
+      }
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -251,23 +266,33 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    User currentUser = getMandatoryCurrentUser();
-    if (project.getStatus() == Project.Status.IN_PROGRESS) {
-      if (userIsAssignee(currentUser, project)) {
-        project.setStatus(Project.Status.TO_DO);
-        projectRepository.updateProject(project);
+    Project project;
+    Project oldProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      User currentUser = getMandatoryCurrentUser();
+      if (project.getStatus() == Project.Status.IN_PROGRESS) {
+        if (userIsAssignee(currentUser, project)) {
+          project.setStatus(Project.Status.TO_DO);
+          projectRepository.updateProject(project);
+        } else {
+          throw new UnauthorisedOperationException(
+              currentUser.getId(),
+              "set back the project status to to do",
+              "they are not the assignee");
+        }
       } else {
-        throw new UnauthorisedOperationException(
-            currentUser.getId(),
-            "set back the project status to to do",
-            "they are not the assignee");
+        throw new IllegalProjectStatusChangeException(project.getStatus(), Project.Status.TO_DO);
       }
-    } else {
-      throw new IllegalProjectStatusChangeException(project.getStatus(), Project.Status.TO_DO);
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -287,22 +312,33 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    User currentUser = getMandatoryCurrentUser();
-    if (project.getStatus() != Project.Status.FINISHED
-        && project.getStatus() != Project.Status.TURNED_IN) {
-      if (userIsAssignee(currentUser, project)) {
-        project.setStatus(Project.Status.TURNED_IN);
-        projectRepository.updateProject(project);
+    Project project;
+    Project oldProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      User currentUser = getMandatoryCurrentUser();
+      if (project.getStatus() != Project.Status.FINISHED
+          && project.getStatus() != Project.Status.TURNED_IN) {
+        if (userIsAssignee(currentUser, project)) {
+          project.setStatus(Project.Status.TURNED_IN);
+          projectRepository.updateProject(project);
+        } else {
+          throw new UnauthorisedOperationException(
+              currentUser.getId(), "turn in project", "they " + "are not the assignee");
+        }
       } else {
-        throw new UnauthorisedOperationException(
-            currentUser.getId(), "turn in project", "they " + "are not the assignee");
+        throw new IllegalProjectStatusChangeException(
+            project.getStatus(), Project.Status.TURNED_IN);
       }
-    } else {
-      throw new IllegalProjectStatusChangeException(project.getStatus(), Project.Status.TURNED_IN);
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -323,25 +359,35 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    User currentUser = getMandatoryCurrentUser();
-    if (project.getStatus() == Project.Status.TURNED_IN) {
-      if (userIsAssignee(currentUser, project)) {
-        if (newStatus == Project.Status.TO_DO || newStatus == Project.Status.IN_PROGRESS) {
-          project.setStatus(newStatus);
-          projectRepository.updateProject(project);
+    Project project;
+    Project oldProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      User currentUser = getMandatoryCurrentUser();
+      if (project.getStatus() == Project.Status.TURNED_IN) {
+        if (userIsAssignee(currentUser, project)) {
+          if (newStatus == Project.Status.TO_DO || newStatus == Project.Status.IN_PROGRESS) {
+            project.setStatus(newStatus);
+            projectRepository.updateProject(project);
+          } else {
+            throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+          }
         } else {
-          throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+          throw new UnauthorisedOperationException(
+              currentUser.getId(), "undo turn in", "they " + "are not the assignee");
         }
       } else {
-        throw new UnauthorisedOperationException(
-            currentUser.getId(), "undo turn in", "they " + "are not the assignee");
+        throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
       }
-    } else {
-      throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -360,22 +406,32 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    User currentUser = getMandatoryCurrentUser();
-    if (project.getStatus() == Project.Status.TURNED_IN) {
-      if (userIsSupervisor(currentUser, project)) {
-        project.setStatus(Project.Status.FINISHED);
-        project.setFinishingDate(LocalDate.now());
-        projectRepository.updateProject(project);
+    Project project;
+    Project oldProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      User currentUser = getMandatoryCurrentUser();
+      if (project.getStatus() == Project.Status.TURNED_IN) {
+        if (userIsSupervisor(currentUser, project)) {
+          project.setStatus(Project.Status.FINISHED);
+          project.setFinishingDate(LocalDate.now());
+          projectRepository.updateProject(project);
+        } else {
+          throw new UnauthorisedOperationException(
+              currentUser.getId(), "accept as finished", "they" + " are not the supervisor");
+        }
       } else {
-        throw new UnauthorisedOperationException(
-            currentUser.getId(), "accept as finished", "they" + " are not the supervisor");
+        throw new IllegalProjectStatusChangeException(project.getStatus(), Project.Status.FINISHED);
       }
-    } else {
-      throw new IllegalProjectStatusChangeException(project.getStatus(), Project.Status.FINISHED);
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -396,25 +452,35 @@ public class ProjectManager extends Manager {
       throws InexistentProjectException, SQLException, NoSignedInUserException,
           InexistentDatabaseEntityException, UnauthorisedOperationException,
           IllegalProjectStatusChangeException {
-    Project project = getMandatoryProject(projectId);
-    User currentUser = getMandatoryCurrentUser();
-    if (project.getStatus() == Project.Status.TURNED_IN) {
-      if (userIsSupervisor(currentUser, project)) {
-        if (newStatus != Project.Status.FINISHED && newStatus != Project.Status.TURNED_IN) {
-          project.setStatus(newStatus);
-          projectRepository.updateProject(project);
+    Project project;
+    Project oldProject;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      project = getMandatoryProject(projectId);
+      oldProject = new Project(project);
+      User currentUser = getMandatoryCurrentUser();
+      if (project.getStatus() == Project.Status.TURNED_IN) {
+        if (userIsSupervisor(currentUser, project)) {
+          if (newStatus != Project.Status.FINISHED && newStatus != Project.Status.TURNED_IN) {
+            project.setStatus(newStatus);
+            projectRepository.updateProject(project);
+          } else {
+            throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+          }
         } else {
-          throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+          throw new UnauthorisedOperationException(
+              currentUser.getId(), "discard turn in", "they" + " are not the supervisor");
         }
       } else {
-        throw new UnauthorisedOperationException(
-            currentUser.getId(), "discard turn in", "they" + " are not the supervisor");
+        throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
       }
-    } else {
-      throw new IllegalProjectStatusChangeException(project.getStatus(), newStatus);
+      unitOfWork.commit();
     }
-    support.firePropertyChange(
-        ProjectChangeablePropertyName.SET_PROJECT_STATUS.toString(), OLD_VALUE, NEW_VALUE);
+    fireProjectChange(
+        ProjectChangeablePropertyName.SET_PROJECT_STATUS,
+        projectId,
+        project.getTeamId(),
+        oldProject,
+        project);
   }
 
   /**
@@ -428,22 +494,25 @@ public class ProjectManager extends Manager {
    * @param assignedToCurrentUser shows whether the returned projects should be assigned to the
    *     current user (true) or assigned to anyone (false).
    * @param supervisedByCurrentUser shows whether the returned projects should be supervised by the
-   *     current user (true) or supervised by anyone (false).
+   *     current user (true) or supervised by anyone (false). At least one of them must be true.
    * @param allowedDeadlineStatuses is the set of deadline statuses which are allowed for the
    *     returned projects.
+   * @param order specifies how the returned projects must be sorted.
    * @return the list of projects fulfilling all the above requirements.
    * @throws SQLException if the operations could not be performed in the database.
    * @throws InexistentDatabaseEntityException should never occur.
    * @throws NoSignedInUserException if there is noone signed in.
+   * @throws IllegalArgumentException if neither assignedToCurrentUser nor supervisedByCurrentUser
+   *     is true.
    */
   public List<Project> getProjects(
       boolean assignedToCurrentUser,
       boolean supervisedByCurrentUser,
       EnumSet<Project.Status> allowedStatuses,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws NoSignedInUserException, InexistentDatabaseEntityException, SQLException {
+    guaranteeRoleOfCurrentUser(assignedToCurrentUser, supervisedByCurrentUser);
     User currentUser = getMandatoryCurrentUser();
     Integer assigneeId = null;
     if (assignedToCurrentUser) {
@@ -454,7 +523,77 @@ public class ProjectManager extends Manager {
       supervisorId = currentUser.getId();
     }
     return projectRepository.getProjects(
-        allowedStatuses, assigneeId, supervisorId, allowedDeadlineStatuses, sorterType, descending);
+        allowedStatuses, assigneeId, supervisorId, allowedDeadlineStatuses, order);
+  }
+
+  /** Asynchronous variant of getProjects, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<Project>> getProjectsAsync(
+      boolean assignedToCurrentUser,
+      boolean supervisedByCurrentUser,
+      EnumSet<Project.Status> allowedStatuses,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order) {
+    return inBackground(
+        () ->
+            getProjects(
+                assignedToCurrentUser,
+                supervisedByCurrentUser,
+                allowedStatuses,
+                allowedDeadlineStatuses,
+                order));
+  }
+
+  /**
+   * Returns a page of the list returned by getProjects: at most pageSize projects, which come right
+   * after the project after in the given order, or the first ones, if after is null. If the
+   * returned page is shorter than pageSize, there are no more projects.
+   *
+   * @param order specifies how the projects must be sorted. It must be the same for all the pages.
+   * @param after is the last project of the previous page, or null for the first page.
+   * @param pageSize is the maximum number of returned projects.
+   * @throws SQLException if the operations could not be performed in the database.
+   * @throws InexistentDatabaseEntityException if after is not saved in the database.
+   * @throws NoSignedInUserException if there is noone signed in.
+   * @throws IllegalArgumentException if neither assignedToCurrentUser nor supervisedByCurrentUser
+   *     is true.
+   * @see #getProjects
+   */
+  public List<Project> getPageOfProjects(
+      boolean assignedToCurrentUser,
+      boolean supervisedByCurrentUser,
+      EnumSet<Project.Status> allowedStatuses,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order,
+      @Nullable Project after,
+      int pageSize)
+      throws NoSignedInUserException, InexistentDatabaseEntityException, SQLException {
+    guaranteeRoleOfCurrentUser(assignedToCurrentUser, supervisedByCurrentUser);
+    User currentUser = getMandatoryCurrentUser();
+    Integer assigneeId = assignedToCurrentUser ? currentUser.getId() : null;
+    Integer supervisorId = supervisedByCurrentUser ? currentUser.getId() : null;
+    return projectRepository.getPageOfProjects(
+        allowedStatuses, assigneeId, supervisorId, allowedDeadlineStatuses, order, after, pageSize);
+  }
+
+  /** Asynchronous variant of getPageOfProjects, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<Project>> getPageOfProjectsAsync(
+      boolean assignedToCurrentUser,
+      boolean supervisedByCurrentUser,
+      EnumSet<Project.Status> allowedStatuses,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order,
+      @Nullable Project after,
+      int pageSize) {
+    return inBackground(
+        () ->
+            getPageOfProjects(
+                assignedToCurrentUser,
+                supervisedByCurrentUser,
+                allowedStatuses,
+                allowedDeadlineStatuses,
+                order,
+                after,
+                pageSize));
   }
 
   /**
@@ -472,10 +611,7 @@ public class ProjectManager extends Manager {
    *     only those projects are returned, which are supervised by the user with id supervisorName.
    * @param allowedDeadlineStatuses is the set of deadline statuses which are allowed for the
    *     returned projects.
-   * @param sorterType desifes how (if any) the returned projects must be sorted.
-   * @param descending specifies the order of sorting. If true, the projects are sorted in
-   *     descending order, otherwise ascending. If the sorterType is NONE, this parameter does not
-   *     count.
+   * @param order specifies how the returned projects must be sorted.
    * @return the list of projects fulfilling all the above requirements.
    * @throws SQLException if the operations could not be performed in the database.
    * @throws InexistentDatabaseEntityException should never occur.
@@ -488,8 +624,7 @@ public class ProjectManager extends Manager {
       String assigneeName,
       EnumSet<Project.Status> allowedStatuses,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws InexistentDatabaseEntityException, SQLException, InexistentUserException {
     Integer assigneeId = null;
     if (assigneeName != null) {
@@ -502,13 +637,38 @@ public class ProjectManager extends Manager {
       supervisorId = supervisor.getId();
     }
     return projectRepository.getProjectsOfTeam(
-        teamId,
-        allowedStatuses,
-        assigneeId,
-        supervisorId,
-        allowedDeadlineStatuses,
-        sorterType,
-        descending);
+        teamId, allowedStatuses, assigneeId, supervisorId, allowedDeadlineStatuses, order);
+  }
+
+  /** Asynchronous variant of getProjectsOfTeam, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<Project>> getProjectsOfTeamAsync(
+      int teamId,
+      String supervisorName,
+      String assigneeName,
+      EnumSet<Project.Status> allowedStatuses,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order) {
+    return inBackground(
+        () ->
+            getProjectsOfTeam(
+                teamId,
+                supervisorName,
+                assigneeName,
+                allowedStatuses,
+                allowedDeadlineStatuses,
+                order));
+  }
+
+  /**
+   * Guarantees that the projects of the current user are listed, and not the projects of all the
+   * users, which would be read from the whole Project table.
+   */
+  private static void guaranteeRoleOfCurrentUser(
+      boolean assignedToCurrentUser, boolean supervisedByCurrentUser) {
+    if (!assignedToCurrentUser && !supervisedByCurrentUser) {
+      throw new IllegalArgumentException(
+          "The projects must be assigned to or supervised by the current user");
+    }
   }
 
   private void guaranteeUserIsSupervisor(
@@ -606,8 +766,7 @@ public class ProjectManager extends Manager {
             member,
             EnumSet.range(Project.Status.TO_DO, Project.Status.TURNED_IN),
             EnumSet.allOf(Project.DeadlineStatus.class),
-            Project.SorterType.NONE,
-            false);
+            ProjectOrder.byId());
     List<Project> unFinishedSupervisedProjects =
         getProjectsOfTeam(
             teamId,
@@ -615,8 +774,7 @@ public class ProjectManager extends Manager {
             null,
             EnumSet.range(Project.Status.TO_DO, Project.Status.TURNED_IN),
             EnumSet.allOf(Project.DeadlineStatus.class),
-            Project.SorterType.NONE,
-            false);
+            ProjectOrder.byId());
     if (!unFinishedAssignedProjects.isEmpty() || !unFinishedSupervisedProjects.isEmpty()) {
       throw new IllegalMemberRemovalException(member);
     }
@@ -648,4 +806,15 @@ public class ProjectManager extends Manager {
   private boolean isOutdatedDate(LocalDate date) {
     return date.isBefore(LocalDate.now());
   }
+
+  /** Notifies the listeners about the change of a project, with the snapshots of the project. */
+  private void fireProjectChange(
+      ProjectChangeablePropertyName propertyName,
+      int projectId,
+      int teamId,
+      @Nullable Project oldProject,
+      @Nullable Project newProject) {
+    support.firePropertyChange(
+        new ProjectChangeEvent(this, propertyName, projectId, teamId, oldProject, newProject));
+  }
 }
@@ -0,0 +1,95 @@
+package model.project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ProjectOrder specifies how a list of projects is sorted: by a sequence of sort keys (attributes
+ * of the projects, such as the importance, each ascending or descending), and finally by the ids of
+ * the projects. Because of the last key, there are no ties, so the order is the same in every
+ * query, which is required by the keyset pagination: the next page starts right after the last
+ * project of the previous page.
+ *
+ * <p>For example, the most important projects first, and among them the ones with the closest
+ * deadline:
+ *
+ * <pre>
+ * ProjectOrder.by(Project.SorterType.IMPORTANCE, true).thenBy(Project.SorterType.DEADLINE, false)
+ * </pre>
+ *
+ * @author Bori Fazakas
+ */
+public class ProjectOrder {
+  private final List<Key> keys;
+  private final Comparator<Project> comparator;
+
+  private ProjectOrder(List<Key> keys) {
+    this.keys = Collections.unmodifiableList(keys);
+    Comparator<Project> comparator = (p1, p2) -> 0;
+    for (Key key : keys) {
+      Comparator<Project> keyComparator = key.sorterType.getComparator();
+      comparator =
+          comparator.thenComparing(key.descending ? keyComparator.reversed() : keyComparator);
+    }
+    this.comparator = comparator.thenComparing(Project.ID_ORDER);
+  }
+
+  /** @return the order of the projects by their ids. */
+  public static ProjectOrder byId() {
+    return new ProjectOrder(new ArrayList<>());
+  }
+
+  /** @return the order by the given sort key (none, if sorterType is NONE), and then by the ids. */
+  public static ProjectOrder by(Project.SorterType sorterType, boolean descending) {
+    return byId().thenBy(sorterType, descending);
+  }
+
+  /**
+   * Returns the order which sorts the projects which are equal in this order by the given sort key.
+   * If sorterType is NONE, or this order already contains it, the order does not change.
+   */
+  public ProjectOrder thenBy(Project.SorterType sorterType, boolean descending) {
+    if (sorterType == Project.SorterType.NONE) {
+      return this;
+    }
+    for (Key key : keys) {
+      if (key.sorterType == sorterType) {
+        return this;
+      }
+    }
+    List<Key> newKeys = new ArrayList<>(keys);
+    newKeys.add(new Key(sorterType, descending));
+    return new ProjectOrder(newKeys);
+  }
+
+  /** @return the sort keys, without the id, which is always the last, ascending key. */
+  public List<Key> getKeys() {
+    return keys;
+  }
+
+  /** @return the comparator which orders the projects like the database does. */
+  public Comparator<Project> getComparator() {
+    return comparator;
+  }
+
+  /** A sort key: an attribute of the projects, and the direction of sorting by it. */
+  public static class Key {
+    private final Project.SorterType sorterType;
+    private final boolean descending;
+
+    private Key(Project.SorterType sorterType, boolean descending) {
+      this.sorterType = sorterType;
+      this.descending = descending;
+    }
+
+    public Project.SorterType getSorterType() {
+      return sorterType;
+    }
+
+    public boolean isDescending() {
+      return descending;
+    }
+  }
+}
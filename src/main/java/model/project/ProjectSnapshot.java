@@ -0,0 +1,51 @@
+package model.project;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * ProjectSnapshot keeps a list of projects loaded from the database, such as all the projects of a
+ * team, so that they can be narrowed down by their status and deadline status, and sorted, in
+ * memory, with the same result as the corresponding query. It is a snapshot: it does not follow the
+ * changes of the projects, so it must be dropped when a project changes.
+ *
+ * @author Bori Fazakas
+ */
+public class ProjectSnapshot {
+  private final List<Project> projects;
+
+  /** @param projects are the projects with any status and deadline status, in any order. */
+  public ProjectSnapshot(List<Project> projects) {
+    this.projects = List.copyOf(projects);
+  }
+
+  /**
+   * Returns the projects with one of the allowed statuses and deadline statuses (as of today),
+   * sorted in the given order, like the database would sort them. If all the deadline statuses are
+   * allowed, the projects are not filtered by their deadline, just like in the query.
+   */
+  public List<Project> select(
+      EnumSet<Project.Status> allowedStatuses,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order,
+      LocalDate today) {
+    boolean allDeadlineStatusesAllowed =
+        allowedDeadlineStatuses.size() == Project.DeadlineStatus.values().length;
+    List<Project> selectedProjects = new ArrayList<>();
+    for (Project project : projects) {
+      if (allowedStatuses.contains(project.getStatus())
+          && (allDeadlineStatusesAllowed
+              || allowedDeadlineStatuses.contains(project.getDeadlineStatus(today)))) {
+        selectedProjects.add(project);
+      }
+    }
+    selectedProjects.sort(order.getComparator());
+    return selectedProjects;
+  }
+
+  public int size() {
+    return projects.size();
+  }
+}
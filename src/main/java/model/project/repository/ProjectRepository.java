@@ -2,6 +2,8 @@ package model.project.repository;
 
 import model.InexistentDatabaseEntityException;
 import model.project.Project;
+import model.project.ProjectOrder;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.util.EnumSet;
@@ -17,13 +19,13 @@ import java.util.Optional;
 public interface ProjectRepository {
 
   /**
-   * Saves the project in the database and assigns it an id, which is returned.
+   * Saves the project in the database and assigns it an id.
    *
    * @param project is the project to save.
-   * @return the id of the newly saved project in the database.
+   * @return the newly saved project, with the id assigned to it in the database.
    * @throws SQLException if the operations could not be performed in the database.
    */
-  int saveProject(Project.SavableProject project)
+  Project saveProject(Project.SavableProject project)
       throws SQLException, InexistentDatabaseEntityException;
 
   /**
@@ -81,10 +83,8 @@ public interface ProjectRepository {
    *     those projects are returned, which are supervised by the user with id supervisorId.
    * @param allowedDeadlineStatuses is the set of deadline statuses which are allowed in the query
    *     result.
-   * @param sorterType specifies by which attribute the projects must be sorted.
-   * @param descending specifies the order of sorting. If true, the projects are sorted in
-   *     descending order, otherwise ascending. If the sorterType is NONE, this parameter does not
-   *     count.
+   * @param order specifies by which attributes, and in which directions the projects must be
+   *     sorted. Projects equal in all these attributes are sorted by their ids.
    * @return the list of projects fulfilling all the above requirements.
    * @throws SQLException if the operations could not be performed in the database.
    */
@@ -94,8 +94,7 @@ public interface ProjectRepository {
       Integer assigneeId,
       Integer supervisorId,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws SQLException;
 
   /**
@@ -113,10 +112,8 @@ public interface ProjectRepository {
    *     those projects are returned, which are supervised by the user with id supervisorId.
    * @param allowedDeadlineStatuses is the set of deadline statuses which are allowed in the query
    *     result.
-   * @param sorterType specifies by which attribute the projects must be sorted.
-   * @param descending specifies the order of sorting. If true, the projects are sorted in
-   *     descending order, otherwise ascending. If the sorterType is NONE, this parameter does not
-   *     count.
+   * @param order specifies by which attributes, and in which directions the projects must be
+   *     sorted. Projects equal in all these attributes are sorted by their ids.
    * @return the list of projects fulfilling all the above requirements.
    * @throws SQLException if the operations could not be performed in the database.
    */
@@ -125,7 +122,37 @@ public interface ProjectRepository {
       Integer assigneeId,
       Integer supervisorId,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws SQLException;
+
+  /**
+   * Returns a page of the list returned by getProjects: at most pageSize projects, which come right
+   * after the project after in the given order, or the first ones, if after is null. The next page
+   * starts after the last project of this one, so all the projects can be loaded page by page,
+   * without loading the earlier pages again. If the returned page is shorter than pageSize, there
+   * are no more projects.
+   *
+   * @param allowedStatuses is the set of the statuses allowed for the returned projects.
+   * @param assigneeId is an optional parameter. If it is null, it doesn't count. Othwerise, only
+   *     those projects are returned, which are assigned to the user with id assigneeId.
+   * @param supervisorId is an optional parameter. If it is null, it doesn't count. Othwerise, only
+   *     those projects are returned, which are supervised by the user with id supervisorId.
+   * @param allowedDeadlineStatuses is the set of deadline statuses which are allowed in the query
+   *     result.
+   * @param order specifies the order of the projects, which must be the same for all the pages.
+   * @param after is the last project of the previous page, or null for the first page.
+   * @param pageSize is the maximum number of projects returned.
+   * @return the page of projects, in the given order.
+   * @throws SQLException if the operations could not be performed in the database.
+   * @throws InexistentDatabaseEntityException if after is not saved in the database.
+   */
+  List<Project> getPageOfProjects(
+      EnumSet<Project.Status> allowedStatuses,
+      Integer assigneeId,
+      Integer supervisorId,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order,
+      @Nullable Project after,
+      int pageSize)
+      throws SQLException, InexistentDatabaseEntityException;
 }
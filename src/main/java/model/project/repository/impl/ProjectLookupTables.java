@@ -0,0 +1,120 @@
+package model.project.repository.impl;
+
+import model.database.PooledConnection;
+import model.database.SqliteDatabaseConnectionFactory;
+import model.project.Project;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+
+/**
+ * ProjectLookupTables holds the ids of the rows of the ProjectStatus and Importance tables, indexed
+ * by the corresponding enums, so that saving or updating a project does not need extra queries to
+ * find them. The tables are loaded once, checked against the enums, and reloaded only if the schema
+ * of the database has changed since they were loaded.
+ *
+ * @author Bori Fazakas
+ */
+class ProjectLookupTables {
+  // Get all the statuses.
+  private static final String GET_STATUSES_QUERY = "SELECT StatusId, StatusName FROM ProjectStatus";
+
+  // Get all the importances.
+  private static final String GET_IMPORTANCES_QUERY =
+      "SELECT ImportanceId, ImportanceName FROM Importance";
+
+  // Get the version of the schema, which is incremented by sqlite whenever the schema changes.
+  private static final String GET_SCHEMA_VERSION_QUERY = "PRAGMA schema_version";
+
+  private final EnumMap<Project.Status, Integer> statusIds = new EnumMap<>(Project.Status.class);
+  private final EnumMap<Project.Importance, Integer> importanceIds =
+      new EnumMap<>(Project.Importance.class);
+  private int loadedSchemaVersion;
+  private boolean loaded = false;
+
+  /** @return the id of the row in the ProjectStatus table corresponding to status. */
+  synchronized int getStatusId(Project.Status status) throws SQLException {
+    guaranteeLoaded();
+    return statusIds.get(status);
+  }
+
+  /** @return the id of the row in the Importance table corresponding to importance. */
+  synchronized int getImportanceId(Project.Importance importance) throws SQLException {
+    guaranteeLoaded();
+    return importanceIds.get(importance);
+  }
+
+  /**
+   * Reloads the lookup tables if the schema of the database has changed since they were loaded.
+   *
+   * @param c is the connection on which the schema version is checked.
+   * @throws SQLException if the tables could not be read, or they don't match the enums.
+   */
+  synchronized void refreshIfSchemaChanged(PooledConnection c) throws SQLException {
+    if (loaded && getSchemaVersion(c) != loadedSchemaVersion) {
+      load(c);
+    }
+  }
+
+  private void guaranteeLoaded() throws SQLException {
+    if (!loaded) {
+      try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+        load(c);
+      }
+    }
+  }
+
+  private void load(PooledConnection c) throws SQLException {
+    loaded = false;
+    loadedSchemaVersion = getSchemaVersion(c);
+    statusIds.clear();
+    try (ResultSet result = c.prepareStatement(GET_STATUSES_QUERY).executeQuery()) {
+      while (result.next()) {
+        String name = result.getString("StatusName");
+        for (Project.Status status : Project.Status.values()) {
+          if (status.toString().equals(name)) {
+            statusIds.put(status, result.getInt("StatusId"));
+          }
+        }
+      }
+    }
+    importanceIds.clear();
+    try (ResultSet result = c.prepareStatement(GET_IMPORTANCES_QUERY).executeQuery()) {
+      while (result.next()) {
+        String name = result.getString("ImportanceName");
+        for (Project.Importance importance : Project.Importance.values()) {
+          if (importance.toString().equals(name)) {
+            importanceIds.put(importance, result.getInt("ImportanceId"));
+          }
+        }
+      }
+    }
+    guaranteeNoDrift();
+    loaded = true;
+  }
+
+  /** Checks that every enum constant has a row in the database. */
+  private void guaranteeNoDrift() throws SQLException {
+    for (Project.Status status : Project.Status.values()) {
+      if (!statusIds.containsKey(status)) {
+        throw new SQLException("The status " + status + " is missing from the ProjectStatus table");
+      }
+    }
+    for (Project.Importance importance : Project.Importance.values()) {
+      if (!importanceIds.containsKey(importance)) {
+        throw new SQLException(
+            "The importance " + importance + " is missing from the Importance table");
+      }
+    }
+  }
+
+  private static int getSchemaVersion(PooledConnection c) throws SQLException {
+    PreparedStatement getSchemaVersionSt = c.prepareStatement(GET_SCHEMA_VERSION_QUERY);
+    try (ResultSet result = getSchemaVersionSt.executeQuery()) {
+      result.next();
+      return result.getInt(1);
+    }
+  }
+}
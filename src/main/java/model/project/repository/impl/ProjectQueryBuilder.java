@@ -0,0 +1,257 @@
+package model.project.repository.impl;
+
+import model.database.PooledConnection;
+import model.project.Project;
+import model.project.ProjectOrder;
+import model.InexistentDatabaseEntityException;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * ProjectQueryBuilder builds the query listing the projects which fulfill a combination of filters.
+ * Only the filters which actually restrict the result are included in the query, each as a
+ * condition the database can answer with an index (for example "p.StatusId IN (?, ?)" instead of
+ * one disjunction per status, "p.DeadlineDay < ?" instead of comparing the text of the deadline
+ * with the current date in the query, or "p.FinishedLate = 1" instead of comparing two dates of
+ * every finished project).
+ *
+ * <p>The indexes of the Project table supporting these conditions start with the team, the
+ * supervisor or the assignee, followed by the status and the deadline day, so the rows are filtered
+ * in the index, and only the matching ones are read from the table. They are composite, but not
+ * covering: the query returns every column of the project (including the description), so an index
+ * covering it would be a second copy of the table.
+ *
+ * <p>The projects are sorted in a ProjectOrder, which always ends with the id of the projects. A
+ * page of the result starts right after the last project of the previous page (keyset pagination),
+ * so the database can skip the earlier projects with the index used for sorting, instead of reading
+ * and dropping them as with an OFFSET.
+ *
+ * <p>All the values are bound as parameters, so the text of the query depends only on which filters
+ * are active (its shape), and the connection's statement cache keeps one prepared statement for
+ * each shape.
+ *
+ * @author Bori Fazakas
+ */
+class ProjectQueryBuilder {
+  // Select the projects with their status and importance names. The conditions are appended.
+  private static final String SELECT_PROJECTS =
+      "SELECT ProjectId, p.Name AS Name, p.TeamId AS TeamId, Description, DeadlineDay, "
+          + "AssigneeId, SupervisorId, StatusName, FinishingDay, ImportanceName From Project p "
+          + "JOIN ProjectStatus st ON p.StatusId = st.StatusId JOIN Importance i ON p"
+          + ".ImportanceId = i.ImportanceId";
+
+  private final ProjectLookupTables lookupTables;
+  private final List<String> conditions = new ArrayList<>();
+  private final List<Parameter> parameters = new ArrayList<>();
+  private String orderClause = "";
+  @Nullable private Integer limit;
+
+  /** Sets a parameter of the query. */
+  @FunctionalInterface
+  private interface Parameter {
+    void bind(PreparedStatement st, int index) throws SQLException;
+  }
+
+  ProjectQueryBuilder(ProjectLookupTables lookupTables) {
+    this.lookupTables = lookupTables;
+  }
+
+  /** Keeps only the projects of the team with teamId. */
+  ProjectQueryBuilder inTeam(int teamId) {
+    addCondition("p.TeamId = ?");
+    addIntParameter(teamId);
+    return this;
+  }
+
+  /** Keeps only the projects supervised by the user with supervisorId, unless it is null. */
+  ProjectQueryBuilder supervisedBy(@Nullable Integer supervisorId) {
+    if (supervisorId != null) {
+      addCondition("p.SupervisorId = ?");
+      addIntParameter(supervisorId);
+    }
+    return this;
+  }
+
+  /** Keeps only the projects assigned to the user with assigneeId, unless it is null. */
+  ProjectQueryBuilder assignedTo(@Nullable Integer assigneeId) {
+    if (assigneeId != null) {
+      addCondition("p.AssigneeId = ?");
+      addIntParameter(assigneeId);
+    }
+    return this;
+  }
+
+  /**
+   * Keeps only the projects with one of the allowed statuses. If all of them are allowed, there is
+   * no condition. The set must not be empty.
+   */
+  ProjectQueryBuilder withStatuses(EnumSet<Project.Status> allowedStatuses) throws SQLException {
+    if (allowedStatuses.size() == Project.Status.values().length) {
+      return this;
+    }
+    StringJoiner placeholders = new StringJoiner(", ", "p.StatusId IN (", ")");
+    for (Project.Status status : allowedStatuses) {
+      placeholders.add("?");
+      addIntParameter(lookupTables.getStatusId(status));
+    }
+    addCondition(placeholders.toString());
+    return this;
+  }
+
+  /**
+   * Keeps only the projects with one of the allowed statuses with respect to their deadline, as of
+   * today. If all of them are allowed, there is no condition. The set must not be empty.
+   */
+  ProjectQueryBuilder withDeadlineStatuses(
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses, LocalDate today)
+      throws SQLException {
+    if (allowedDeadlineStatuses.size() == Project.DeadlineStatus.values().length) {
+      return this;
+    }
+    int finishedId = lookupTables.getStatusId(Project.Status.FINISHED);
+    StringJoiner alternatives = new StringJoiner(" OR ", "(", ")");
+    boolean inTimeToFinish =
+        allowedDeadlineStatuses.contains(Project.DeadlineStatus.IN_TIME_TO_FINISH);
+    boolean overdue = allowedDeadlineStatuses.contains(Project.DeadlineStatus.OVERDUE);
+    if (inTimeToFinish && overdue) {
+      alternatives.add("p.StatusId <> ?");
+      addIntParameter(finishedId);
+    } else if (inTimeToFinish || overdue) {
+      alternatives.add(
+          inTimeToFinish
+              ? "(p.StatusId <> ? AND p.DeadlineDay >= ?)"
+              : "(p.StatusId <> ? AND p.DeadlineDay < ?)");
+      addIntParameter(finishedId);
+      addLongParameter(today.toEpochDay());
+    }
+    boolean finishedInTime =
+        allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_IN_TIME);
+    boolean finishedLate = allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_LATE);
+    // FinishedLate is maintained by the database, and it is null for the unfinished projects
+    if (finishedInTime && finishedLate) {
+      alternatives.add("p.FinishedLate IS NOT NULL");
+    } else if (finishedInTime || finishedLate) {
+      alternatives.add(finishedInTime ? "p.FinishedLate = 0" : "p.FinishedLate = 1");
+    }
+    addCondition(alternatives.toString());
+    return this;
+  }
+
+  /** Sorts the projects by the keys of order, and then by their ids. */
+  ProjectQueryBuilder orderedBy(ProjectOrder order) {
+    StringJoiner columns = new StringJoiner(", ", " ORDER BY ", "");
+    for (ProjectOrder.Key key : order.getKeys()) {
+      columns.add(key.getSorterType().getColumnName() + (key.isDescending() ? " DESC" : ""));
+    }
+    columns.add("p.ProjectId");
+    orderClause = columns.toString();
+    return this;
+  }
+
+  /**
+   * Keeps only the projects which come after the project last in the given order. The order must be
+   * the same as the one passed to orderedBy.
+   *
+   * <p>For the keys k1, ..., kn and the id, the condition is "k1 &gt; ? OR (k1 = ? AND k2 &gt; ?)
+   * OR ... OR (k1 = ? AND ... AND kn = ? AND p.ProjectId &gt; ?)", with "&lt;" instead of "&gt;"
+   * for the descending keys. (A row value comparison would be shorter, but it cannot mix the
+   * directions.)
+   *
+   * @throws InexistentDatabaseEntityException if last is not saved in the database.
+   */
+  ProjectQueryBuilder after(ProjectOrder order, Project last)
+      throws SQLException, InexistentDatabaseEntityException {
+    StringJoiner alternatives = new StringJoiner(" OR ", "(", ")");
+    List<ProjectOrder.Key> keys = order.getKeys();
+    for (int i = 0; i <= keys.size(); i++) {
+      StringJoiner comparisons = new StringJoiner(" AND ", "(", ")");
+      for (int j = 0; j < i; j++) {
+        comparisons.add(keys.get(j).getSorterType().getColumnName() + " = ?");
+        addSortValueParameter(keys.get(j).getSorterType(), last);
+      }
+      if (i < keys.size()) {
+        ProjectOrder.Key key = keys.get(i);
+        comparisons.add(
+            key.getSorterType().getColumnName() + (key.isDescending() ? " < ?" : " > ?"));
+        addSortValueParameter(key.getSorterType(), last);
+      } else {
+        comparisons.add("p.ProjectId > ?");
+        addIntParameter(last.getId());
+      }
+      alternatives.add(comparisons.toString());
+    }
+    addCondition(alternatives.toString());
+    return this;
+  }
+
+  /** Keeps only the first pageSize projects. */
+  ProjectQueryBuilder limit(int pageSize) {
+    limit = pageSize;
+    return this;
+  }
+
+  /** @return the text of the query, with a placeholder for every parameter. */
+  String getSql() {
+    StringBuilder sql = new StringBuilder(SELECT_PROJECTS);
+    if (!conditions.isEmpty()) {
+      sql.append(" WHERE ").append(String.join(" AND ", conditions));
+    }
+    sql.append(orderClause);
+    if (limit != null) {
+      sql.append(" LIMIT ?");
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Returns the prepared statement of the query from the statement cache of c, with all the
+   * parameters bound.
+   */
+  PreparedStatement prepare(PooledConnection c) throws SQLException {
+    PreparedStatement st = c.prepareStatement(getSql());
+    for (int i = 0; i < parameters.size(); i++) {
+      parameters.get(i).bind(st, i + 1);
+    }
+    if (limit != null) {
+      st.setInt(parameters.size() + 1, limit);
+    }
+    return st;
+  }
+
+  /** Adds the value of the project's attribute sorterType, as it is stored in the database. */
+  private void addSortValueParameter(Project.SorterType sorterType, Project project)
+      throws SQLException {
+    switch (sorterType) {
+      case DEADLINE:
+        addLongParameter(project.getDeadline().toEpochDay());
+        break;
+      case STATUS:
+        addIntParameter(lookupTables.getStatusId(project.getStatus()));
+        break;
+      case IMPORTANCE:
+        addIntParameter(lookupTables.getImportanceId(project.getImportance()));
+        break;
+      default:
+        throw new IllegalArgumentException("Projects are not sorted by " + sorterType);
+    }
+  }
+
+  private void addCondition(String condition) {
+    conditions.add(condition);
+  }
+
+  private void addIntParameter(int value) {
+    parameters.add((st, index) -> st.setInt(index, value));
+  }
+
+  private void addLongParameter(long value) {
+    parameters.add((st, index) -> st.setLong(index, value));
+  }
+}
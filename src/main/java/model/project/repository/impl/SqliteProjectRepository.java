@@ -1,9 +1,12 @@
 package model.project.repository.impl;
 
 import model.InexistentDatabaseEntityException;
+import model.database.PooledConnection;
 import model.database.SqliteDatabaseConnectionFactory;
 import model.project.Project;
+import model.project.ProjectOrder;
 import model.project.repository.ProjectRepository;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
 import java.time.LocalDate;
@@ -21,6 +24,9 @@ import java.util.Optional;
 public class SqliteProjectRepository implements ProjectRepository {
   protected static SqliteProjectRepository instance;
 
+  /** The ids of the project statuses and importances in the database. */
+  private final ProjectLookupTables lookupTables = new ProjectLookupTables();
+
   private SqliteProjectRepository() {}
 
   /** Implemented with the singleton pattern. */
@@ -38,8 +44,8 @@ public class SqliteProjectRepository implements ProjectRepository {
 
   // Get project based on id.
   private static final String GET_PROJECT_BY_ID =
-      "SELECT ProjectId, Name, TeamId, Description, Deadline, AssigneeId, SupervisorId, "
-          + "StatusName, FinishingDate, ImportanceName "
+      "SELECT ProjectId, Name, TeamId, Description, DeadlineDay, AssigneeId, SupervisorId, "
+          + "StatusName, FinishingDay, ImportanceName "
           + "From Project p JOIN ProjectStatus st ON p"
           + ".StatusId = st.StatusId JOIN Importance i ON p.ImportanceId = i.ImportanceId WHERE "
           + "ProjectId = ?";
@@ -53,8 +59,8 @@ public class SqliteProjectRepository implements ProjectRepository {
 
   // Get projects based on team and title.
   private static final String GET_PROJECT_BY_TEAM_TITLE_STATEMENT =
-      "SELECT ProjectId, Name, TeamId, Description, Deadline, AssigneeId, SupervisorId, "
-          + "StatusName, FinishingDate, ImportanceName "
+      "SELECT ProjectId, Name, TeamId, Description, DeadlineDay, AssigneeId, SupervisorId, "
+          + "StatusName, FinishingDay, ImportanceName "
           + "From Project p JOIN ProjectStatus st ON p"
           + ".StatusId = st.StatusId JOIN Importance i ON p.ImportanceId = i.ImportanceId WHERE "
           + "Name = ? and TeamId = ? ";
@@ -62,56 +68,11 @@ public class SqliteProjectRepository implements ProjectRepository {
   // Delete project.
   private static final String DELETE_PROJECT_STATEMENT = "DELETE FROM Project WHERE ProjectId = ?";
 
-  // Get projects of team, possibly with a given assignee, supervisor, status and status with
-  // respect to deadline. The extra wildcards are responsible for making some attributes optional.
-  private static final String GET_PROJECTS_OF_TEAM =
-      "SELECT ProjectId, p.Name AS Name, p.TeamId AS TeamId, Description, Deadline, "
-          + "AssigneeId, SupervisorId, StatusName, FinishingDate, ImportanceName From Project p "
-          + "JOIN ProjectStatus st ON p.StatusId = st.StatusId JOIN Importance i ON p"
-          + ".ImportanceId = i.ImportanceId "
-          + "WHERE p.TeamId = ? AND "
-          + "(p.SupervisorId = ? OR ?) AND "
-          + "(p.AssigneeId = ? OR ?) AND "
-          + "((st.StatusName = 'TO_DO' AND ?) OR" // TO_DO allowed
-          + " (st.StatusName = 'IN_PROGRESS' AND ?) OR" // IN_PROGRESS allowed
-          + " (st.StatusName = 'TURNED_IN' AND ?) OR" // TURNED_IN allowed
-          + " (st.StatusName = 'FINISHED' AND ?)) AND " // FINISHED allowed
-          + "(((p.Deadline >= date(\"now\") AND p.StatusId <= 3) AND ?) OR " // IN_TIME_TO_FINISH
-          + " ((p.Deadline < date(\"now\") AND p.statusId <= 3) AND ?) OR" // OVERDUE
-          + " ((p.StatusId = 4 AND p.FinishingDate <= p.Deadline) AND ?) OR" // FINISHED_IN_TIME
-          + " ((p.StatusId = 4 AND p.FinishingDate > p.Deadline) AND ?)) "; // FINISHED_LATE
-
-  // Get projects possibly with a given assignee, supervisor, status and status with respect to
-  // deadline. The extra wildcards are responsible for making some attributes optional.
-  private static final String GET_PROJECTS =
-      "SELECT ProjectId, p.Name AS Name, p.TeamId AS TeamId, Description, Deadline, "
-          + "AssigneeId, SupervisorId, StatusName, FinishingDate, ImportanceName From Project p "
-          + "JOIN ProjectStatus st ON p.StatusId = st.StatusId JOIN Importance i ON p"
-          + ".ImportanceId = i.ImportanceId "
-          + "WHERE (p.SupervisorId = ? OR ?) AND "
-          + "(p.AssigneeId = ? OR ?) AND"
-          + "((st.StatusName = 'TO_DO' AND ?) OR" // TO_DO allowed
-          + " (st.StatusName = 'IN_PROGRESS' AND ?) OR" // IN_PROGRESS allowed
-          + " (st.StatusName = 'TURNED_IN' AND ?) OR" // TURNED_IN allowed
-          + " (st.StatusName = 'FINISHED' AND ?)) AND " // FINISHED allowed
-          + "(((p.Deadline >= date(\"now\") AND p.StatusId <= 3) AND ?) OR " // IN_TIME_TO_FINISH
-          + " ((p.Deadline < date(\"now\") AND p.statusId <= 3) AND ?) OR" // OVERDUE
-          + " ((p.StatusId = 4 AND p.FinishingDate <= p.Deadline) AND ?) OR" // FINISHED_IN_TIME
-          + " ((p.StatusId = 4 AND p.FinishingDate > p.Deadline) AND ?))"; // FINISHED_LATE
-
-  // Get status id
-  private static final String GET_PROJECTS_STATUS_ID =
-      "SELECT StatusId from ProjectStatus WHERE StatusName = ?";
-
-  // Get importance id.
-  private static final String GET_PROJECTS_IMPORTANCE_ID =
-      "SELECT ImportanceId from Importance WHERE ImportanceName = ?";
-
   @Override
-  public int saveProject(Project.SavableProject project)
+  public Project saveProject(Project.SavableProject project)
       throws SQLException, InexistentDatabaseEntityException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement saveProjectSt = c.prepareStatement(SAVE_PROJECT_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement saveProjectSt = c.prepareStatement(SAVE_PROJECT_STATEMENT);
       saveProjectSt.setString(1, project.getTitle());
       saveProjectSt.setInt(2, project.getTeamId());
       if (project.getDescription().isPresent()) {
@@ -122,27 +83,34 @@ public class SqliteProjectRepository implements ProjectRepository {
       saveProjectSt.setString(4, project.getDeadline().toString());
       saveProjectSt.setInt(5, project.getAssigneeId());
       saveProjectSt.setInt(6, project.getSupervisorId());
-      saveProjectSt.setInt(7, getProjectStatusId(project.getStatus()));
+      saveProjectSt.setInt(7, lookupTables.getStatusId(project.getStatus()));
       if (project.getFinishingDate().isPresent()) {
         saveProjectSt.setString(8, project.getFinishingDate().get().toString());
       } else {
         saveProjectSt.setNull(8, Types.NVARCHAR);
       }
-      saveProjectSt.setInt(9, getProjectImportanceId(project.getImportance()));
-      saveProjectSt.executeUpdate();
-      Optional<Project> savedProjectOp = getProject(project.getTeamId(), project.getTitle());
-      if (savedProjectOp.isEmpty()) {
-        throw new SQLException("the project could not be saved in the database");
-      } else {
-        return savedProjectOp.get().getId();
-      }
+      saveProjectSt.setInt(9, lookupTables.getImportanceId(project.getImportance()));
+      executeProjectWrite(c, saveProjectSt);
+      Project savedProject =
+          new Project(
+              c.getGeneratedId(saveProjectSt),
+              project.getTitle(),
+              project.getTeamId(),
+              project.getDeadline(),
+              project.getStatus(),
+              project.getSupervisorId(),
+              project.getAssigneeId(),
+              project.getFinishingDate().orElse(null),
+              project.getImportance());
+      savedProject.setDescription(project.getDescription().orElse(null));
+      return savedProject;
     }
   }
 
   @Override
   public Optional<Project> getProject(int projectId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectByIdSt = c.prepareStatement(GET_PROJECT_BY_ID)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getProjectByIdSt = c.prepareStatement(GET_PROJECT_BY_ID);
       getProjectByIdSt.setInt(1, projectId);
       try (ResultSet result = getProjectByIdSt.executeQuery()) {
         if (result.next()) {
@@ -156,9 +124,9 @@ public class SqliteProjectRepository implements ProjectRepository {
 
   @Override
   public Optional<Project> getProject(int teamId, String name) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectByTitleTeamSt =
-            c.prepareStatement(GET_PROJECT_BY_TEAM_TITLE_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getProjectByTitleTeamSt =
+          c.prepareStatement(GET_PROJECT_BY_TEAM_TITLE_STATEMENT);
       getProjectByTitleTeamSt.setString(1, name);
       getProjectByTitleTeamSt.setInt(2, teamId);
       try (ResultSet result = getProjectByTitleTeamSt.executeQuery()) {
@@ -174,8 +142,8 @@ public class SqliteProjectRepository implements ProjectRepository {
   @Override
   public void updateProject(Project project)
       throws SQLException, InexistentDatabaseEntityException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement updateProjectSt = c.prepareStatement(UPDATE_PROJECT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement updateProjectSt = c.prepareStatement(UPDATE_PROJECT);
       updateProjectSt.setString(1, project.getTitle());
       updateProjectSt.setInt(2, project.getTeamId());
       if (project.getDescription().isPresent()) {
@@ -186,22 +154,22 @@ public class SqliteProjectRepository implements ProjectRepository {
       updateProjectSt.setString(4, project.getDeadline().toString());
       updateProjectSt.setInt(5, project.getAssigneeId());
       updateProjectSt.setInt(6, project.getSupervisorId());
-      updateProjectSt.setInt(7, getProjectStatusId(project.getStatus()));
+      updateProjectSt.setInt(7, lookupTables.getStatusId(project.getStatus()));
       if (project.getFinishingDate().isPresent()) {
         updateProjectSt.setString(8, project.getFinishingDate().get().toString());
       } else {
         updateProjectSt.setNull(8, Types.NVARCHAR);
       }
-      updateProjectSt.setInt(9, getProjectImportanceId(project.getImportance()));
+      updateProjectSt.setInt(9, lookupTables.getImportanceId(project.getImportance()));
       updateProjectSt.setInt(10, project.getId());
-      updateProjectSt.executeUpdate();
+      executeProjectWrite(c, updateProjectSt);
     }
   }
 
   @Override
   public void deleteProject(int projectId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement deleteProjectSt = c.prepareStatement(DELETE_PROJECT_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement deleteProjectSt = c.prepareStatement(DELETE_PROJECT_STATEMENT);
       deleteProjectSt.setInt(1, projectId);
       deleteProjectSt.executeUpdate();
     }
@@ -214,41 +182,21 @@ public class SqliteProjectRepository implements ProjectRepository {
       Integer assigneeId,
       Integer supervisorId,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectsOfTeamSt =
-            c.prepareStatement(getGetProjectsOfTeamQuery(sorterType, descending))) {
-      getProjectsOfTeamSt.setInt(1, teamId);
-      // if supervisorid is null, it is don't care
-      if (supervisorId != null) {
-        getProjectsOfTeamSt.setInt(2, supervisorId);
-        getProjectsOfTeamSt.setBoolean(3, false);
-      } else {
-        getProjectsOfTeamSt.setNull(2, Types.INTEGER);
-        getProjectsOfTeamSt.setBoolean(3, true);
-      }
-      // if assigneId is null, it is don't care
-      if (assigneeId != null) {
-        getProjectsOfTeamSt.setInt(4, assigneeId);
-        getProjectsOfTeamSt.setBoolean(5, false);
-      } else {
-        getProjectsOfTeamSt.setNull(4, Types.INTEGER);
-        getProjectsOfTeamSt.setBoolean(5, true);
-      }
-      getProjectsOfTeamSt.setBoolean(6, allowedStatuses.contains(Project.Status.TO_DO));
-      getProjectsOfTeamSt.setBoolean(7, allowedStatuses.contains(Project.Status.IN_PROGRESS));
-      getProjectsOfTeamSt.setBoolean(8, allowedStatuses.contains(Project.Status.TURNED_IN));
-      getProjectsOfTeamSt.setBoolean(9, allowedStatuses.contains(Project.Status.FINISHED));
-      getProjectsOfTeamSt.setBoolean(
-          10, allowedDeadlineStatuses.contains(Project.DeadlineStatus.IN_TIME_TO_FINISH));
-      getProjectsOfTeamSt.setBoolean(
-          11, allowedDeadlineStatuses.contains(Project.DeadlineStatus.OVERDUE));
-      getProjectsOfTeamSt.setBoolean(
-          12, allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_IN_TIME));
-      getProjectsOfTeamSt.setBoolean(
-          13, allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_LATE));
+    if (allowedStatuses.isEmpty() || allowedDeadlineStatuses.isEmpty()) {
+      return new ArrayList<>();
+    }
+    ProjectQueryBuilder query =
+        new ProjectQueryBuilder(lookupTables)
+            .inTeam(teamId)
+            .supervisedBy(supervisorId)
+            .assignedTo(assigneeId)
+            .withStatuses(allowedStatuses)
+            .withDeadlineStatuses(allowedDeadlineStatuses, LocalDate.now())
+            .orderedBy(order);
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getProjectsOfTeamSt = query.prepare(c);
       try (ResultSet result = getProjectsOfTeamSt.executeQuery()) {
         ArrayList<Project> projectsOfTeam = new ArrayList<>();
         while (result.next()) {
@@ -265,40 +213,20 @@ public class SqliteProjectRepository implements ProjectRepository {
       Integer assigneeId,
       Integer supervisorId,
       EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
-      Project.SorterType sorterType,
-      boolean descending)
+      ProjectOrder order)
       throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectsSt =
-            c.prepareStatement(getGetProjectsQuery(sorterType, descending))) {
-      // if supervisorid is null, it is don't care
-      if (supervisorId != null) {
-        getProjectsSt.setInt(1, supervisorId);
-        getProjectsSt.setBoolean(2, false);
-      } else {
-        getProjectsSt.setNull(1, Types.INTEGER);
-        getProjectsSt.setBoolean(2, true);
-      }
-      // if assigneId is null, it is don't care
-      if (assigneeId != null) {
-        getProjectsSt.setInt(3, assigneeId);
-        getProjectsSt.setBoolean(4, false);
-      } else {
-        getProjectsSt.setNull(3, Types.INTEGER);
-        getProjectsSt.setBoolean(4, true);
-      }
-      getProjectsSt.setBoolean(5, allowedStatuses.contains(Project.Status.TO_DO));
-      getProjectsSt.setBoolean(6, allowedStatuses.contains(Project.Status.IN_PROGRESS));
-      getProjectsSt.setBoolean(7, allowedStatuses.contains(Project.Status.TURNED_IN));
-      getProjectsSt.setBoolean(8, allowedStatuses.contains(Project.Status.FINISHED));
-      getProjectsSt.setBoolean(
-          9, allowedDeadlineStatuses.contains(Project.DeadlineStatus.IN_TIME_TO_FINISH));
-      getProjectsSt.setBoolean(
-          10, allowedDeadlineStatuses.contains(Project.DeadlineStatus.OVERDUE));
-      getProjectsSt.setBoolean(
-          11, allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_IN_TIME));
-      getProjectsSt.setBoolean(
-          12, allowedDeadlineStatuses.contains(Project.DeadlineStatus.FINISHED_LATE));
+    if (allowedStatuses.isEmpty() || allowedDeadlineStatuses.isEmpty()) {
+      return new ArrayList<>();
+    }
+    ProjectQueryBuilder query =
+        new ProjectQueryBuilder(lookupTables)
+            .supervisedBy(supervisorId)
+            .assignedTo(assigneeId)
+            .withStatuses(allowedStatuses)
+            .withDeadlineStatuses(allowedDeadlineStatuses, LocalDate.now())
+            .orderedBy(order);
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getProjectsSt = query.prepare(c);
       try (ResultSet result = getProjectsSt.executeQuery()) {
         ArrayList<Project> projects = new ArrayList<>();
         while (result.next()) {
@@ -309,25 +237,57 @@ public class SqliteProjectRepository implements ProjectRepository {
     }
   }
 
-  private int getProjectStatusId(Project.Status status) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectStatusIdSt = c.prepareStatement(GET_PROJECTS_STATUS_ID)) {
-      getProjectStatusIdSt.setString(1, status.toString());
-      try (ResultSet result = getProjectStatusIdSt.executeQuery()) {
-        result.next();
-        return result.getInt("StatusId");
+  @Override
+  public List<Project> getPageOfProjects(
+      EnumSet<Project.Status> allowedStatuses,
+      Integer assigneeId,
+      Integer supervisorId,
+      EnumSet<Project.DeadlineStatus> allowedDeadlineStatuses,
+      ProjectOrder order,
+      @Nullable Project after,
+      int pageSize)
+      throws SQLException, InexistentDatabaseEntityException {
+    if (allowedStatuses.isEmpty() || allowedDeadlineStatuses.isEmpty()) {
+      return new ArrayList<>();
+    }
+    ProjectQueryBuilder query =
+        new ProjectQueryBuilder(lookupTables)
+            .supervisedBy(supervisorId)
+            .assignedTo(assigneeId)
+            .withStatuses(allowedStatuses)
+            .withDeadlineStatuses(allowedDeadlineStatuses, LocalDate.now());
+    if (after != null) {
+      query.after(order, after);
+    }
+    query.orderedBy(order).limit(pageSize);
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getPageOfProjectsSt = query.prepare(c);
+      try (ResultSet result = getPageOfProjectsSt.executeQuery()) {
+        ArrayList<Project> page = new ArrayList<>();
+        while (result.next()) {
+          page.add(getProjectFromResult(result));
+        }
+        return page;
       }
     }
   }
 
-  private int getProjectImportanceId(Project.Importance importance) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getProjectImportanceIdSt =
-            c.prepareStatement(GET_PROJECTS_IMPORTANCE_ID)) {
-      getProjectImportanceIdSt.setString(1, importance.toString());
-      ResultSet result = getProjectImportanceIdSt.executeQuery();
-      result.next();
-      return result.getInt("ImportanceId");
+  /**
+   * Executes a statement which saves or updates a project. If it fails, the lookup tables are
+   * reloaded in case the status or importance ids changed because of a schema change, so that the
+   * next attempt can succeed.
+   */
+  private void executeProjectWrite(PooledConnection c, PreparedStatement projectWriteSt)
+      throws SQLException {
+    try {
+      projectWriteSt.executeUpdate();
+    } catch (SQLException e) {
+      try {
+        lookupTables.refreshIfSchemaChanged(c);
+      } catch (SQLException refreshException) {
+        e.addSuppressed(refreshException);
+      }
+      throw e;
     }
   }
 
@@ -336,12 +296,13 @@ public class SqliteProjectRepository implements ProjectRepository {
     String title = result.getString("Name");
     int teamId = result.getInt("TeamId");
     String description = result.getString("Description");
-    LocalDate deadline = LocalDate.parse(result.getString("Deadline"));
+    LocalDate deadline = LocalDate.ofEpochDay(result.getLong("DeadlineDay"));
     int supervisorId = result.getInt("SupervisorId");
     int assigneeId = result.getInt("AssigneeId");
     LocalDate finishingDate = null;
-    if (result.getString("FinishingDate") != null) {
-      finishingDate = LocalDate.parse(result.getString("finishingDate"));
+    long finishingDay = result.getLong("FinishingDay");
+    if (!result.wasNull()) {
+      finishingDate = LocalDate.ofEpochDay(finishingDay);
     }
     Project.Status status = Project.Status.valueOf(result.getString("StatusName"));
     Project.Importance importance = Project.Importance.valueOf(result.getString("ImportanceName"));
@@ -359,24 +320,4 @@ public class SqliteProjectRepository implements ProjectRepository {
     project.setDescription(description);
     return project;
   }
-
-  private String getGetProjectsOfTeamQuery(Project.SorterType sorterType, boolean descending) {
-    return GET_PROJECTS_OF_TEAM.concat(getOrderClause(sorterType, descending));
-  }
-
-  private String getGetProjectsQuery(Project.SorterType sorterType, boolean descending) {
-    return GET_PROJECTS.concat(getOrderClause(sorterType, descending));
-  }
-
-  private String getOrderClause(Project.SorterType sorterType, boolean descending) {
-    if (sorterType != Project.SorterType.NONE) {
-      String clause = "ORDER BY ".concat(sorterType.getColumnName());
-      if (descending) {
-        clause = clause.concat(" DESC");
-      }
-      return clause;
-    } else {
-      return "";
-    }
-  }
 }
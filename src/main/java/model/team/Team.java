@@ -45,6 +45,11 @@ public class Team {
     this.code = code;
   }
 
+  /** Creates a snapshot of team, which is not affected by the later changes of team. */
+  public Team(Team team) {
+    this(team.id, team.name, team.managerId, team.code);
+  }
+
   public int getId() throws InexistentDatabaseEntityException {
     return id;
   }
@@ -0,0 +1,82 @@
+package model.team;
+
+import model.AsyncPropertyChangeSupport;
+import org.jetbrains.annotations.Nullable;
+
+import java.beans.PropertyChangeEvent;
+import java.util.Objects;
+
+/**
+ * TeamChangeEvent is fired by the TeamManager whenever a team or its memberships change. Besides
+ * the name of the change (one of TeamManager.ChangablePropertyName), it carries the id of the
+ * affected team, the snapshots of the team before and after the change and, for membership changes,
+ * the id of the member who joined or left.
+ *
+ * <p>The old value is the team before the change (null if it was created), and the new value is the
+ * team after the change (null if it was deleted). For membership changes, the old value is the team
+ * if the member belonged to it before the change, and the new value is the team if the member
+ * belongs to it after the change.
+ *
+ * @author Bori Fazakas
+ */
+public class TeamChangeEvent extends PropertyChangeEvent
+    implements AsyncPropertyChangeSupport.CoalescableEvent {
+  private final int teamId;
+  private final @Nullable Integer memberId;
+
+  public TeamChangeEvent(
+      Object source,
+      TeamManager.ChangablePropertyName propertyName,
+      int teamId,
+      @Nullable Team oldTeam,
+      @Nullable Team newTeam,
+      @Nullable Integer memberId) {
+    super(source, propertyName.toString(), oldTeam, newTeam);
+    this.teamId = teamId;
+    this.memberId = memberId;
+  }
+
+  public int getTeamId() {
+    return teamId;
+  }
+
+  /** @return the id of the member who joined or left the team, or null if no membership changed. */
+  @Nullable
+  public Integer getMemberId() {
+    return memberId;
+  }
+
+  /**
+   * Two consecutive changes of the same kind of the same team (and of the same member) are
+   * coalesced into one.
+   */
+  @Override
+  @Nullable
+  public PropertyChangeEvent coalesceWith(PropertyChangeEvent previous) {
+    TeamChangeEvent previousEvent = (TeamChangeEvent) previous;
+    if (previousEvent.teamId != teamId || !Objects.equals(previousEvent.memberId, memberId)) {
+      return null;
+    }
+    return new TeamChangeEvent(
+        getSource(),
+        TeamManager.ChangablePropertyName.valueOf(getPropertyName()),
+        teamId,
+        previousEvent.getOldTeam(),
+        getNewTeam(),
+        memberId);
+  }
+
+  /**
+   * @return the team before the change, or null if it did not exist (or the member was not in it).
+   */
+  @Nullable
+  public Team getOldTeam() {
+    return (Team) getOldValue();
+  }
+
+  /** @return the team after the change, or null if it was deleted (or the member left it). */
+  @Nullable
+  public Team getNewTeam() {
+    return (Team) getNewValue();
+  }
+}
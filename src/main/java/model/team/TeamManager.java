@@ -3,13 +3,15 @@ package model.team;
 import model.InexistentDatabaseEntityException;
 import model.Manager;
 import model.UnauthorisedOperationException;
-import model.project.ProjectManager;
+import model.database.UnitOfWork;
 import model.user.exceptions.*;
 import model.user.User;
 import model.team.exceptions.*;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TeamManager is responsible for executing all the commands needed for the application that are
@@ -53,16 +55,22 @@ public class TeamManager extends Manager {
   public void createNewTeam(String name)
       throws SQLException, NoSignedInUserException, InexistentDatabaseEntityException {
     User currentUser = getMandatoryCurrentUser();
-    int teamId =
-        teamRepository.saveTeam(
-            new Team.SavableTeam(name, currentUser.getId(), generateTeamCode()));
-    teamRepository.addTeamMember(teamId, currentUser.getId());
-    support.firePropertyChange(ChangablePropertyName.CREATE_TEAM.toString(), OLD_VALUE, NEW_VALUE);
+    Team team;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team =
+          teamRepository.saveTeam(
+              new Team.SavableTeam(name, currentUser.getId(), generateTeamCode()));
+      teamRepository.addTeamMember(team.getId(), currentUser.getId());
+      unitOfWork.commit();
+    }
+    fireTeamChange(
+        ChangablePropertyName.CREATE_TEAM, team.getId(), null, team, currentUser.getId());
   }
 
   /**
    * Deletes the team with the specified id from the database, but only if the current user is its
-   * manager. To do so, first, all the memberships and projects of the team are deleted.
+   * manager. All the memberships and projects of the team are deleted with it, in a single
+   * transaction.
    *
    * @param teamId is the id of the team to delete.
    * @throws SQLException if the operation could not be performed in the database.
@@ -71,18 +79,15 @@ public class TeamManager extends Manager {
    *     because the user is not the manager of the team.
    * @throws NoSignedInUserException if the user is not signed in.
    * @throws InexistentDatabaseEntityException - should never occur.
-   * @throws InexistentUserException should never occur.
    */
   public void deleteTeam(int teamId)
       throws SQLException, InexistentTeamException, UnauthorisedOperationException,
-          NoSignedInUserException, InexistentDatabaseEntityException, InexistentUserException {
+          NoSignedInUserException, InexistentDatabaseEntityException {
     Team team = getMandatoryTeam(teamId);
     User currentUser = getMandatoryCurrentUser();
     guaranteeUserIsManager(team, currentUser, "delete the team");
-    teamRepository.deleteAllMembersOfTeam(teamId);
-    ProjectManager.getInstance().deleteAllProjectsOfTeam(teamId);
     teamRepository.deleteTeam(teamId);
-    support.firePropertyChange(ChangablePropertyName.DELETE_TEAM.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(ChangablePropertyName.DELETE_TEAM, teamId, team, null, null);
   }
 
   /**
@@ -99,6 +104,11 @@ public class TeamManager extends Manager {
     return teamRepository.getTeamsOfUser(currentUser.getId());
   }
 
+  /** Asynchronous variant of getTeamsOfCurrentUser, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<Team>> getTeamsOfCurrentUserAsync() {
+    return inBackground(this::getTeamsOfCurrentUser);
+  }
+
   /**
    * Generated a new, unique code for the team with the given id, and saves it. Remark that if no
    * team with the given id exists, nothing happens, no exception is thrown.
@@ -119,8 +129,9 @@ public class TeamManager extends Manager {
     guaranteeUserIsManager(team, currentUser, "regenerate team code");
     String newCode = generateTeamCode();
     teamRepository.setNewCode(teamId, newCode);
-    support.firePropertyChange(
-        ChangablePropertyName.CHANGED_TEAM_CODE.toString(), OLD_VALUE, NEW_VALUE);
+    Team oldTeam = new Team(team);
+    team.setCode(newCode);
+    fireTeamChange(ChangablePropertyName.CHANGED_TEAM_CODE, teamId, oldTeam, team, null);
     return newCode;
   }
 
@@ -138,14 +149,22 @@ public class TeamManager extends Manager {
   public void joinTeam(String code)
       throws SQLException, InexistentTeamException, NoSignedInUserException,
           InexistentDatabaseEntityException, AlreadyMemberException {
-    Team team = getMandatoryTeam(code);
     User currentUser = getMandatoryCurrentUser();
-    if (teamRepository.isMemberOfTeam(team.getId(), currentUser.getId())) {
-      throw new AlreadyMemberException(currentUser.getUsername(), team.getName());
+    Team team;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team = getMandatoryTeam(code);
+      if (teamRepository.isMemberOfTeam(team.getId(), currentUser.getId())) {
+        throw new AlreadyMemberException(currentUser.getUsername(), team.getName());
+      }
+      teamRepository.addTeamMember(team.getId(), currentUser.getId());
+      unitOfWork.commit();
     }
-    teamRepository.addTeamMember(team.getId(), currentUser.getId());
-    support.firePropertyChange(
-        ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(
+        ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS,
+        team.getId(),
+        null,
+        team,
+        currentUser.getId());
   }
 
   /**
@@ -164,16 +183,24 @@ public class TeamManager extends Manager {
       throws SQLException, NoSignedInUserException, InexistentDatabaseEntityException,
           InexistentTeamException, ManagerRemovalException, UnregisteredMemberRemovalException {
     User currentUser = getMandatoryCurrentUser();
-    Team team = getMandatoryTeam(teamId);
-    if (!teamRepository.isMemberOfTeam(teamId, currentUser.getId())) {
-      throw new UnregisteredMemberRemovalException(team.getName(), currentUser.getUsername());
-    }
-    if (userIsManager(team, currentUser)) {
-      throw new ManagerRemovalException(team.getName(), currentUser.getUsername());
+    Team team;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team = getMandatoryTeam(teamId);
+      if (!teamRepository.isMemberOfTeam(teamId, currentUser.getId())) {
+        throw new UnregisteredMemberRemovalException(team.getName(), currentUser.getUsername());
+      }
+      if (userIsManager(team, currentUser)) {
+        throw new ManagerRemovalException(team.getName(), currentUser.getUsername());
+      }
+      teamRepository.removeTeamMember(teamId, currentUser.getId());
+      unitOfWork.commit();
     }
-    teamRepository.removeTeamMember(teamId, currentUser.getId());
-    support.firePropertyChange(
-        ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(
+        ChangablePropertyName.CURRENT_USER_TEAM_MEMBERSHIPS,
+        teamId,
+        team,
+        null,
+        currentUser.getId());
   }
 
   /**
@@ -194,16 +221,20 @@ public class TeamManager extends Manager {
       throws SQLException, InexistentTeamException, UnauthorisedOperationException,
           NoSignedInUserException, InexistentUserException, InexistentDatabaseEntityException,
           AlreadyMemberException {
-    Team team = getMandatoryTeam(teamId);
     User currentUser = getMandatoryCurrentUser();
-    guaranteeUserIsManager(team, currentUser, "add member to the team");
-    User newMember = getMandatoryUser(userName);
-    if (teamRepository.isMemberOfTeam(team.getId(), newMember.getId())) {
-      throw new AlreadyMemberException(newMember.getUsername(), team.getName());
+    Team team;
+    User newMember;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team = getMandatoryTeam(teamId);
+      guaranteeUserIsManager(team, currentUser, "add member to the team");
+      newMember = getMandatoryUser(userName);
+      if (teamRepository.isMemberOfTeam(team.getId(), newMember.getId())) {
+        throw new AlreadyMemberException(newMember.getUsername(), team.getName());
+      }
+      teamRepository.addTeamMember(team.getId(), newMember.getId());
+      unitOfWork.commit();
     }
-    teamRepository.addTeamMember(team.getId(), newMember.getId());
-    support.firePropertyChange(
-        ChangablePropertyName.ADDED_TEAM_MEMBER.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(ChangablePropertyName.ADDED_TEAM_MEMBER, teamId, null, team, newMember.getId());
   }
 
   /**
@@ -227,19 +258,24 @@ public class TeamManager extends Manager {
       throws SQLException, InexistentTeamException, UnauthorisedOperationException,
           NoSignedInUserException, InexistentUserException, InexistentDatabaseEntityException,
           UnregisteredMemberRemovalException, ManagerRemovalException {
-    Team team = getMandatoryTeam(teamId);
     User currentUser = getMandatoryCurrentUser();
-    if (!teamRepository.isMemberOfTeam(teamId, currentUser.getId())) {
-      throw new UnregisteredMemberRemovalException(team.getName(), currentUser.getUsername());
-    }
-    guaranteeUserIsManager(team, currentUser, "remove a member from the team");
-    User toRemoveMember = getMandatoryUser(userName);
-    if (userIsManager(team, toRemoveMember)) {
-      throw new ManagerRemovalException(team.getName(), toRemoveMember.getUsername());
+    Team team;
+    User toRemoveMember;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team = getMandatoryTeam(teamId);
+      if (!teamRepository.isMemberOfTeam(teamId, currentUser.getId())) {
+        throw new UnregisteredMemberRemovalException(team.getName(), currentUser.getUsername());
+      }
+      guaranteeUserIsManager(team, currentUser, "remove a member from the team");
+      toRemoveMember = getMandatoryUser(userName);
+      if (userIsManager(team, toRemoveMember)) {
+        throw new ManagerRemovalException(team.getName(), toRemoveMember.getUsername());
+      }
+      teamRepository.removeTeamMember(team.getId(), toRemoveMember.getId());
+      unitOfWork.commit();
     }
-    teamRepository.removeTeamMember(team.getId(), toRemoveMember.getId());
-    support.firePropertyChange(
-        ChangablePropertyName.REMOVED_TEAM_MEMBER.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(
+        ChangablePropertyName.REMOVED_TEAM_MEMBER, teamId, team, null, toRemoveMember.getId());
   }
 
   /**
@@ -260,16 +296,23 @@ public class TeamManager extends Manager {
       throws SQLException, InexistentTeamException, UnauthorisedOperationException,
           NoSignedInUserException, InexistentUserException, InexistentDatabaseEntityException,
           UnregisteredMemberRoleException {
-    Team team = getMandatoryTeam(teamId);
     User currentUser = getMandatoryCurrentUser();
-    guaranteeUserIsManager(team, currentUser, "pass manager position of team to someone else");
-    User newManager = getMandatoryUser(newManagerName);
-    if (!teamRepository.isMemberOfTeam(teamId, newManager.getId())) {
-      throw new UnregisteredMemberRoleException(newManagerName, team.getId(), "be manager");
+    Team team;
+    User newManager;
+    Team oldTeam;
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      team = getMandatoryTeam(teamId);
+      guaranteeUserIsManager(team, currentUser, "pass manager position of team to someone else");
+      newManager = getMandatoryUser(newManagerName);
+      if (!teamRepository.isMemberOfTeam(teamId, newManager.getId())) {
+        throw new UnregisteredMemberRoleException(newManagerName, team.getId(), "be manager");
+      }
+      teamRepository.setNewManagerPosition(teamId, newManager.getId());
+      oldTeam = new Team(team);
+      team.setManagerId(newManager.getId());
+      unitOfWork.commit();
     }
-    teamRepository.setNewManagerPosition(teamId, newManager.getId());
-    support.firePropertyChange(
-        ChangablePropertyName.CHANGED_TEAM_MANAGER.toString(), OLD_VALUE, NEW_VALUE);
+    fireTeamChange(ChangablePropertyName.CHANGED_TEAM_MANAGER, teamId, oldTeam, team, null);
   }
 
   /**
@@ -292,8 +335,9 @@ public class TeamManager extends Manager {
     User currentUser = getMandatoryCurrentUser();
     guaranteeUserIsManager(team, currentUser, "change the name of the team");
     teamRepository.setNewName(teamId, newTeamName);
-    support.firePropertyChange(
-        ChangablePropertyName.CHANGED_TEAM_NAME.toString(), OLD_VALUE, NEW_VALUE);
+    Team oldTeam = new Team(team);
+    team.setName(newTeamName);
+    fireTeamChange(ChangablePropertyName.CHANGED_TEAM_NAME, teamId, oldTeam, team, null);
   }
 
   /**
@@ -355,4 +399,20 @@ public class TeamManager extends Manager {
   public List<User> getMembersOfTeam(int teamId) throws SQLException {
     return teamRepository.getMembersOfTeam(teamId);
   }
+
+  /** Asynchronous variant of getMembersOfTeam, executed on the BackgroundExecutor. */
+  public CompletableFuture<List<User>> getMembersOfTeamAsync(int teamId) {
+    return inBackground(() -> getMembersOfTeam(teamId));
+  }
+
+  /** Notifies the listeners about the change of a team, with the snapshots of the team. */
+  private void fireTeamChange(
+      ChangablePropertyName propertyName,
+      int teamId,
+      @Nullable Team oldTeam,
+      @Nullable Team newTeam,
+      @Nullable Integer memberId) {
+    support.firePropertyChange(
+        new TeamChangeEvent(this, propertyName, teamId, oldTeam, newTeam, memberId));
+  }
 }
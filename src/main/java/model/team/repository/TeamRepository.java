@@ -17,19 +17,18 @@ import java.util.Optional;
 public interface TeamRepository {
 
   /**
-   * Saves the new team in the database and returns the id of the team in the database. It also sets
-   * the id of the team object.
+   * Saves the new team in the database and returns it with the id assigned to it in the database.
    *
    * @param team holds the data of the new team to be saved. The id of team should be null.
-   * @return the id of the newly saved team.
+   * @return the newly saved team, with its id.
    * @throws SQLException if the operation could not be performed in the database.
    */
-  int saveTeam(Team.SavableTeam team) throws SQLException, InexistentDatabaseEntityException;
+  Team saveTeam(Team.SavableTeam team) throws SQLException, InexistentDatabaseEntityException;
 
   /**
-   * Deletes the team with the specified id from the database. It also deletes all the memberships
-   * related to it. Requirement: all projects and members having foreign keys to teams must already
-   * be deleted.
+   * Deletes the team with the specified id from the database, together with all the data related to
+   * it: its memberships, its projects and the comments of its projects. Either all of them are
+   * deleted, or none of them.
    *
    * @param teamId is the id of the team to delete.
    * @throws SQLException if the operation could not be performed in the database.
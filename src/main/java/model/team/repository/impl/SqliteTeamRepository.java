@@ -1,7 +1,9 @@
 package model.team.repository.impl;
 
 import model.InexistentDatabaseEntityException;
+import model.database.PooledConnection;
 import model.database.SqliteDatabaseConnectionFactory;
+import model.database.UnitOfWork;
 import model.team.Team;
 import model.team.repository.TeamRepository;
 import model.user.User;
@@ -37,6 +39,14 @@ public class SqliteTeamRepository implements TeamRepository {
   // Delete a team.
   private static final String DELETE_TEAM_STATEMENT = "DELETE from Team WHERE TeamId = ?";
 
+  // Delete the comments of all the projects of a team.
+  private static final String DELETE_COMMENTS_OF_TEAM_STATEMENT =
+      "DELETE FROM Comment WHERE ProjectId IN (SELECT ProjectId FROM Project WHERE TeamId = ?)";
+
+  // Delete all the projects of a team.
+  private static final String DELETE_PROJECTS_OF_TEAM_STATEMENT =
+      "DELETE FROM Project WHERE TeamId = ?";
+
   // Get a team with a given id.
   private static final String GET_TEAM_WITH_CODE_QUERY = "SELECT * from Team WHERE Code = ?";
 
@@ -82,27 +92,23 @@ public class SqliteTeamRepository implements TeamRepository {
           + " m.TeamId = ?";
 
   @Override
-  public int saveTeam(Team.SavableTeam team)
+  public Team saveTeam(Team.SavableTeam team)
       throws SQLException, InexistentDatabaseEntityException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement saveTeamSt = c.prepareStatement(SAVE_TEAM_STATEMENT); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement saveTeamSt = c.prepareStatement(SAVE_TEAM_STATEMENT);
       saveTeamSt.setString(1, team.getName());
       saveTeamSt.setInt(2, team.getManagerId());
       saveTeamSt.setString(3, team.getCode());
       saveTeamSt.executeUpdate();
-      Optional<Team> savedTeam = getTeam(team.getCode());
-      if (savedTeam.isPresent()) {
-        return savedTeam.get().getId();
-      } else {
-        throw new SQLException("Saving team was unsuccessful");
-      }
+      return new Team(
+          c.getGeneratedId(saveTeamSt), team.getName(), team.getManagerId(), team.getCode());
     }
   }
 
   @Override
   public Optional<Team> getTeam(int teamId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getTeamWithIdSt = c.prepareStatement(GET_TEAM_WITH_ID_QUERY); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getTeamWithIdSt = c.prepareStatement(GET_TEAM_WITH_ID_QUERY);
       getTeamWithIdSt.setInt(1, teamId);
       try (ResultSet result = getTeamWithIdSt.executeQuery()) {
         if (result.next()) {
@@ -120,8 +126,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public Optional<Team> getTeam(String code) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getTeamWithCodeSt = c.prepareStatement(GET_TEAM_WITH_CODE_QUERY)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getTeamWithCodeSt = c.prepareStatement(GET_TEAM_WITH_CODE_QUERY);
       getTeamWithCodeSt.setString(1, code);
       try (ResultSet result = getTeamWithCodeSt.executeQuery()) {
         if (result.next()) {
@@ -139,8 +145,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public List<Team> getTeamsOfUser(int userId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getTeamsOfUserSt = c.prepareStatement(GET_TEAMS_OF_USER_QUERY)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getTeamsOfUserSt = c.prepareStatement(GET_TEAMS_OF_USER_QUERY);
       getTeamsOfUserSt.setInt(1, userId);
       try (ResultSet result = getTeamsOfUserSt.executeQuery()) {
         List<Team> usersTeams = new ArrayList<>();
@@ -158,18 +164,27 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void deleteTeam(int teamId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement deleteTeamSt = c.prepareStatement(DELETE_TEAM_STATEMENT)) {
-      deleteTeamSt.setInt(1, teamId);
-      deleteTeamSt.executeUpdate();
+    try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+      // the rows referencing the team are deleted first, because of the foreign keys
+      for (String statement :
+          List.of(
+              DELETE_COMMENTS_OF_TEAM_STATEMENT,
+              DELETE_PROJECTS_OF_TEAM_STATEMENT,
+              REMOVE_ALL_TEAM_MEMBERS_STATEMENT,
+              DELETE_TEAM_STATEMENT)) {
+        PreparedStatement deleteSt = unitOfWork.getConnection().prepareStatement(statement);
+        deleteSt.setInt(1, teamId);
+        deleteSt.executeUpdate();
+      }
+      unitOfWork.commit();
     }
   }
 
   @Override
   public void deleteAllMembersOfTeam(int teamId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement removeAllTeamMembersSt =
-            c.prepareStatement(REMOVE_ALL_TEAM_MEMBERS_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement removeAllTeamMembersSt =
+          c.prepareStatement(REMOVE_ALL_TEAM_MEMBERS_STATEMENT);
       removeAllTeamMembersSt.setInt(1, teamId);
       removeAllTeamMembersSt.execute();
     }
@@ -177,8 +192,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void addTeamMember(int teamId, int userId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement addTeamMembershipSt = c.prepareStatement(ADD_TEAM_MEMBERSHIP_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement addTeamMembershipSt = c.prepareStatement(ADD_TEAM_MEMBERSHIP_STATEMENT);
       addTeamMembershipSt.setInt(1, userId);
       addTeamMembershipSt.setInt(2, teamId);
       addTeamMembershipSt.executeUpdate();
@@ -187,9 +202,9 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void removeTeamMember(int teamId, int userId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement removeTeamMembershipSt =
-            c.prepareStatement(REMOVE_TEAM_MEMBERSHIP_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement removeTeamMembershipSt =
+          c.prepareStatement(REMOVE_TEAM_MEMBERSHIP_STATEMENT);
       removeTeamMembershipSt.setInt(1, userId);
       removeTeamMembershipSt.setInt(2, teamId);
       removeTeamMembershipSt.executeUpdate();
@@ -198,8 +213,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public boolean isMemberOfTeam(int teamId, int userId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement isMemberSt = c.prepareStatement(IS_MEMBER_QUERY)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement isMemberSt = c.prepareStatement(IS_MEMBER_QUERY);
       isMemberSt.setInt(1, teamId);
       isMemberSt.setInt(2, userId);
       try (ResultSet result = isMemberSt.executeQuery()) {
@@ -210,8 +225,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void setNewCode(int teamId, String newCode) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement setNewCodeSt = c.prepareStatement(SET_NEW_TEAMCODE_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement setNewCodeSt = c.prepareStatement(SET_NEW_TEAMCODE_STATEMENT);
       setNewCodeSt.setString(1, newCode);
       setNewCodeSt.setInt(2, teamId);
       setNewCodeSt.executeUpdate();
@@ -220,8 +235,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void setNewManagerPosition(int teamId, int managerId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement setManagerSt = c.prepareStatement(SET_MANAGER_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement setManagerSt = c.prepareStatement(SET_MANAGER_STATEMENT);
       setManagerSt.setInt(1, managerId);
       setManagerSt.setInt(2, teamId);
       setManagerSt.executeUpdate();
@@ -230,8 +245,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public void setNewName(int teamId, String newTeamName) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement setNameSt = c.prepareStatement(SET_NAME_STATEMENT)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement setNameSt = c.prepareStatement(SET_NAME_STATEMENT);
       setNameSt.setString(1, newTeamName);
       setNameSt.setInt(2, teamId);
       setNameSt.executeUpdate();
@@ -240,8 +255,8 @@ public class SqliteTeamRepository implements TeamRepository {
 
   @Override
   public List<User> getMembersOfTeam(int teamId) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getTeamMembersSt = c.prepareStatement(GET_TEAM_MEMBERS_QUERY)) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getTeamMembersSt = c.prepareStatement(GET_TEAM_MEMBERS_QUERY);
       List<User> members = new ArrayList<>();
       getTeamMembersSt.setInt(1, teamId);
       try (ResultSet resultSet = getTeamMembersSt.executeQuery()) {
@@ -5,19 +5,24 @@ import model.Manager;
 import model.user.exceptions.DuplicateUsernameException;
 import model.user.exceptions.EmptyFieldsException;
 import model.user.exceptions.NoSignedInUserException;
+import model.user.repository.impl.CachingUserRepository;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /** Singleton class UserManager. */
 public class UserManager extends Manager {
 
   private static UserManager instance;
   /** The current user which has signed in to the application. */
-  private User currentUser;
+  private volatile User currentUser;
 
-  private UserManager() {}
+  private UserManager() {
+    // the cached users must be dropped when their account data changes
+    addPropertyChangeListener(CachingUserRepository.getInstance());
+  }
 
   /** The instance of the UserManager class is only created when it is required. */
   public static UserManager getInstance() {
@@ -121,6 +126,11 @@ public class UserManager extends Manager {
     return userRepository.getUserById(id);
   }
 
+  /** Asynchronous variant of getUserById, executed on the BackgroundExecutor. */
+  public CompletableFuture<User> getUserByIdAsync(int id) {
+    return inBackground(() -> getUserById(id));
+  }
+
   public void logOut() {
     currentUser = null;
   }
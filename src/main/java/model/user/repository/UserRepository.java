@@ -15,10 +15,11 @@ public interface UserRepository {
    * unique, there cannot be
    *
    * @param user = the user to be saved
+   * @return the saved user, with the id generated for it
    * @throws SQLException if the user could not be saved
    * @throws DuplicateUsernameException if the username is already taken
    */
-  void saveUser(User user) throws SQLException, DuplicateUsernameException;
+  User saveUser(User user) throws SQLException, DuplicateUsernameException;
   /**
    * Gets the user's id when validating the sign-in operation.
    *
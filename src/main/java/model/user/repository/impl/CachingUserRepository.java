@@ -0,0 +1,221 @@
+package model.user.repository.impl;
+
+import model.InexistentDatabaseEntityException;
+import model.user.User;
+import model.user.UserManager;
+import model.user.exceptions.DuplicateUsernameException;
+import model.user.repository.UserRepository;
+import org.jetbrains.annotations.Nullable;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CachingUserRepository is a UserRepository which keeps the most recently used users in memory,
+ * indexed both by id and by username, and delegates to another UserRepository (the database) only
+ * when a user is not cached. The cache is bounded: if it is full, the least recently used user is
+ * evicted.
+ *
+ * <p>Saved and updated users are written through to the cache. Since it listens to the UserManager,
+ * the cache also drops the entries of a user whose account data was updated.
+ *
+ * <p>The lock of the cache is held only while the maps are accessed, never while the database is
+ * queried, so a slow query or a write waiting for the writer connection does not block the lookups
+ * of other users. A user loaded while another thread updated or invalidated a user is returned, but
+ * not cached, since it may already be stale. The writes are serialised by a separate lock, so that
+ * they reach the cache in the same order as the database.
+ *
+ * <p>Remark that users are mutable, so the cache always hands out copies. Implemented with the
+ * singleton pattern.
+ *
+ * @author Bori Fazakas
+ */
+public class CachingUserRepository implements UserRepository, PropertyChangeListener {
+  protected static CachingUserRepository instance;
+
+  private static final String CAPACITY_PROPERTY = "userCache.capacity";
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private final UserRepository repository;
+  private final Map<Integer, User> usersById;
+  private final Map<String, Integer> idsByUsername = new HashMap<>();
+  private final Object writeLock = new Object();
+  private long hits = 0;
+  private long misses = 0;
+  // incremented whenever a cached user may have become stale
+  private long invalidations = 0;
+
+  CachingUserRepository(UserRepository repository, int capacity) {
+    this.repository = repository;
+    this.usersById =
+        new LinkedHashMap<>(capacity, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Integer, User> eldest) {
+            if (size() > capacity) {
+              idsByUsername.remove(eldest.getValue().getUsername());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /** Implemented with the singleton pattern. */
+  public static synchronized CachingUserRepository getInstance() {
+    if (instance == null) {
+      instance =
+          new CachingUserRepository(
+              SqliteUserRepository.getInstance(),
+              Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+    return instance;
+  }
+
+  @Override
+  public User saveUser(User user) throws SQLException, DuplicateUsernameException {
+    synchronized (writeLock) {
+      User savedUser = repository.saveUser(user);
+      synchronized (this) {
+        cache(savedUser);
+      }
+      return copyOf(savedUser);
+    }
+  }
+
+  @Override
+  public int getUserId(String username, String password) throws SQLException {
+    return repository.getUserId(username, password);
+  }
+
+  @Override
+  @Nullable
+  public User getUserById(int id) throws SQLException {
+    long invalidationsBeforeLoading;
+    synchronized (this) {
+      User cachedUser = usersById.get(id);
+      if (cachedUser != null) {
+        hits++;
+        return copyOf(cachedUser);
+      }
+      misses++;
+      invalidationsBeforeLoading = invalidations;
+    }
+    User user = repository.getUserById(id);
+    cacheLoaded(user, invalidationsBeforeLoading);
+    return copyOf(user);
+  }
+
+  @Override
+  @Nullable
+  public User getUserByUsername(String username) throws SQLException {
+    long invalidationsBeforeLoading;
+    synchronized (this) {
+      Integer id = idsByUsername.get(username);
+      if (id != null) {
+        hits++;
+        return copyOf(usersById.get(id));
+      }
+      misses++;
+      invalidationsBeforeLoading = invalidations;
+    }
+    User user = repository.getUserByUsername(username);
+    cacheLoaded(user, invalidationsBeforeLoading);
+    return copyOf(user);
+  }
+
+  @Override
+  public void updateUser(User user) throws SQLException, InexistentDatabaseEntityException {
+    synchronized (writeLock) {
+      repository.updateUser(user);
+      synchronized (this) {
+        invalidate(user.getId());
+        cache(user);
+      }
+    }
+  }
+
+  /** Drops the cached users whose account data was changed. */
+  @Override
+  public synchronized void propertyChange(PropertyChangeEvent evt) {
+    if (evt.getPropertyName().equals(UserManager.UPDATE_ACCOUNT_PROPERTY)) {
+      invalidate((User) evt.getOldValue());
+      invalidate((User) evt.getNewValue());
+    }
+  }
+
+  /** Removes all the users from the cache. */
+  public synchronized void clear() {
+    invalidations++;
+    usersById.clear();
+    idsByUsername.clear();
+  }
+
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /** @return the ratio of lookups served from the cache, or 0 if there were no lookups yet. */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Caches the user loaded from the repository, unless it is null, or a user may have become stale
+   * since the loading started.
+   */
+  private synchronized void cacheLoaded(@Nullable User user, long invalidationsBeforeLoading) {
+    if (user != null && invalidations == invalidationsBeforeLoading) {
+      cache(user);
+    }
+  }
+
+  private void cache(User user) {
+    try {
+      User cachedUser = copyOf(user);
+      usersById.put(cachedUser.getId(), cachedUser);
+      idsByUsername.put(cachedUser.getUsername(), cachedUser.getId());
+    } catch (InexistentDatabaseEntityException e) {
+      // users not saved yet are not cached
+    }
+  }
+
+  private void invalidate(@Nullable User user) {
+    if (user == null) {
+      return;
+    }
+    try {
+      invalidate(user.getId());
+    } catch (InexistentDatabaseEntityException e) {
+      // users not saved yet are not cached
+    }
+  }
+
+  private void invalidate(int id) {
+    invalidations++;
+    User cachedUser = usersById.remove(id);
+    if (cachedUser != null) {
+      idsByUsername.remove(cachedUser.getUsername());
+    }
+  }
+
+  @Nullable
+  private static User copyOf(@Nullable User user) {
+    if (user == null) {
+      return null;
+    }
+    try {
+      return new User(user.getId(), user.getUsername(), user.getPassword());
+    } catch (InexistentDatabaseEntityException e) {
+      return new User.SavableUser(user.getUsername(), user.getPassword());
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package model.user.repository.impl;
 
 import model.InexistentDatabaseEntityException;
+import model.database.PooledConnection;
 import model.database.SqliteDatabaseConnectionFactory;
 import model.user.repository.UserRepository;
 import model.user.User;
@@ -31,23 +32,19 @@ public class SqliteUserRepository implements UserRepository {
       "UPDATE User SET UserName = ?, Password = ? WHERE UserId = ?;";
 
   /** Saves the user in the database. */
-  public void saveUser(User user) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement saveUserStatement = c.prepareStatement(SAVE_USER_STATEMENT); ) {
+  public User saveUser(User user) throws SQLException {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement saveUserStatement = c.prepareStatement(SAVE_USER_STATEMENT);
       saveUserStatement.setString(1, user.getUsername());
       saveUserStatement.setString(2, user.getPassword());
-      saveUserStatement.execute();
-      // check if the user was saved
-      User savedUser = getUserByUsername(user.getUsername());
-      if (savedUser == null) {
-        throw new SQLException("User could not be saved.");
-      }
+      saveUserStatement.executeUpdate();
+      return new User(c.getGeneratedId(saveUserStatement), user.getUsername(), user.getPassword());
     }
   }
   /** Updates information about an existing user. */
   public void updateUser(User user) throws SQLException, InexistentDatabaseEntityException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement updateUserStatement = c.prepareStatement(UPDATE_USER_STATEMENT); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getWriteConnection()) {
+      PreparedStatement updateUserStatement = c.prepareStatement(UPDATE_USER_STATEMENT);
       updateUserStatement.setString(1, user.getUsername());
       updateUserStatement.setString(2, user.getPassword());
       updateUserStatement.setInt(3, user.getId());
@@ -57,8 +54,8 @@ public class SqliteUserRepository implements UserRepository {
 
   /** Get the user's id based on the username and password, used for validating the sign-in. */
   public int getUserId(String username, String password) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getUserIdStatement = c.prepareStatement(GET_USER_ID_STATEMENT); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getUserIdStatement = c.prepareStatement(GET_USER_ID_STATEMENT);
       getUserIdStatement.setString(1, username);
       getUserIdStatement.setString(2, password);
       try (ResultSet result = getUserIdStatement.executeQuery()) {
@@ -73,8 +70,8 @@ public class SqliteUserRepository implements UserRepository {
   /** Access the user's data based on the id of the user. */
   @Nullable
   public User getUserById(int id) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getUserByIdStatement = c.prepareStatement(GET_USER_BY_ID_STATEMENT); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getUserByIdStatement = c.prepareStatement(GET_USER_BY_ID_STATEMENT);
       getUserByIdStatement.setInt(1, id);
       try (ResultSet result = getUserByIdStatement.executeQuery()) {
         if (result.next()) {
@@ -94,9 +91,9 @@ public class SqliteUserRepository implements UserRepository {
    */
   @Nullable
   public User getUserByUsername(String username) throws SQLException {
-    try (Connection c = SqliteDatabaseConnectionFactory.getConnection();
-        PreparedStatement getUserByUsernameStatement =
-            c.prepareStatement(GET_USER_BY_USERNAME_STATEMENT); ) {
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      PreparedStatement getUserByUsernameStatement =
+          c.prepareStatement(GET_USER_BY_USERNAME_STATEMENT);
       getUserByUsernameStatement.setString(1, username);
       try (ResultSet result = getUserByUsernameStatement.executeQuery()) {
         if (result.next()) {
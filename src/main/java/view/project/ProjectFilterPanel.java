@@ -3,6 +3,7 @@ package view.project;
 import controller.project.ProjectFilterController;
 import model.project.Project;
 import model.user.User;
+import org.jetbrains.annotations.Nullable;
 import view.CloseableComponent;
 import view.UIFactory;
 
@@ -124,9 +125,15 @@ public class ProjectFilterPanel extends JPanel implements CloseableComponent {
   }
 
   public void updateAssigneeSupervisorFilters() {
+    if (assigneeComboBoxModel.getSize() == 0) {
+      setAssigneeSupervisorFilters(null); // only "Anyone" until the members are loaded
+    }
+    controller.loadTeamMembers(this::setAssigneeSupervisorFilters);
+  }
+
+  private void setAssigneeSupervisorFilters(@Nullable List<User> members) {
     assigneeComboBoxModel.removeAllElements();
     supervisorComboBoxModel.removeAllElements();
-    List<User> members = controller.getTeamMembers();
     assigneeComboBoxModel.addElement(ProjectFilterController.ANYONE);
     supervisorComboBoxModel.addElement(ProjectFilterController.ANYONE);
     if (members != null) {
@@ -291,6 +298,16 @@ public class ProjectFilterPanel extends JPanel implements CloseableComponent {
     }
   }
 
+  /**
+   * Lists the next page of the projects of the current user, if they are listed page by page.
+   * Called when the user scrolls to the end of the list.
+   */
+  public void loadMoreProjects() {
+    if (!controller.enableProjectSelectionForTeam()) {
+      controller.loadMoreProjectsOfUser();
+    }
+  }
+
   class ButtonListener implements ActionListener {
 
     @Override
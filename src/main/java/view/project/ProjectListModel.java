@@ -1,14 +1,19 @@
 package view.project;
 
+import model.AsyncPropertyChangeSupport;
+import model.InexistentDatabaseEntityException;
 import model.PropertyChangeObservable;
 import model.project.Project;
+import org.jetbrains.annotations.Nullable;
 
-import javax.swing.*;
+import java.beans.IndexedPropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ProjectListMode represents the underlying model containing the list of projects to be displayed.
@@ -18,15 +23,28 @@ import java.util.List;
  * controller which displays the actual projects in a table, listens to the changes made in the
  * model, and updates the view.
  *
+ * <p>When the list is replaced, the model compares the new list with the old one, by the ids of the
+ * projects, and describes the difference with row-level events: PROJECT_REMOVED, PROJECT_INSERTED
+ * and PROJECT_UPDATED, which are IndexedPropertyChangeEvents with the index of the row and the
+ * project. Applied in the order they are fired, they transform the old list into the new one, so
+ * the table keeps its selection and scroll position, and repaints only the changed rows. If the
+ * order of the remaining projects changed (for example, the sorting changed), or there are too many
+ * changes, a single PROJECT_LIST event is fired instead, with the whole new list.
+ *
  * @author Beata Keresztes, Bori Fazakas
  */
 public class ProjectListModel implements PropertyChangeObservable {
 
   private List<Project> projectList;
   public static final String PROJECT_LIST = "Project list";
+  public static final String PROJECT_INSERTED = "Project inserted";
+  public static final String PROJECT_UPDATED = "Project updated";
+  public static final String PROJECT_REMOVED = "Project removed";
+
+  // Above this number of changed rows, replacing the whole list is cheaper than the row events.
+  private static final int MAX_ROW_CHANGES = 200;
 
-  private PropertyChangeSupport support = new PropertyChangeSupport(this);
-  private static ProjectListModel instance = new ProjectListModel();
+  private PropertyChangeSupport support = new AsyncPropertyChangeSupport(this);
 
   public ProjectListModel() {
     projectList = new ArrayList<>();
@@ -39,8 +57,89 @@ public class ProjectListModel implements PropertyChangeObservable {
   public void setProjectList(List<Project> newProjectList) {
     List<Project> oldProjectList = projectList;
     projectList = newProjectList;
-    support.firePropertyChange(
-        PROJECT_LIST, oldProjectList, Collections.unmodifiableCollection(projectList));
+    List<IndexedPropertyChangeEvent> rowChanges = getRowChanges(oldProjectList, projectList);
+    if (rowChanges == null) {
+      support.firePropertyChange(
+          PROJECT_LIST, oldProjectList, Collections.unmodifiableList(projectList));
+    } else {
+      for (IndexedPropertyChangeEvent rowChange : rowChanges) {
+        support.firePropertyChange(rowChange);
+      }
+    }
+  }
+
+  /**
+   * Returns the row events transforming oldList into newList: first the removals, from the last row
+   * to the first, so that the indexes of the earlier rows stay valid, then the insertions, from the
+   * first row to the last, and finally the updates of the projects which are in both lists, with
+   * their new indexes. Returns null if the order of the projects in both lists is not the same, or
+   * there are more than MAX_ROW_CHANGES changes.
+   */
+  @Nullable
+  private List<IndexedPropertyChangeEvent> getRowChanges(
+      List<Project> oldList, List<Project> newList) {
+    Map<Integer, Integer> newIndexes = new HashMap<>();
+    for (int i = 0; i < newList.size(); i++) {
+      newIndexes.put(getId(newList.get(i)), i);
+    }
+    List<IndexedPropertyChangeEvent> removals = new ArrayList<>();
+    List<IndexedPropertyChangeEvent> updates = new ArrayList<>();
+    Map<Integer, Integer> oldIndexes = new HashMap<>();
+    int lastNewIndex = -1;
+    for (int i = 0; i < oldList.size(); i++) {
+      Project oldProject = oldList.get(i);
+      oldIndexes.put(getId(oldProject), i);
+      Integer newIndex = newIndexes.get(getId(oldProject));
+      if (newIndex == null) {
+        removals.add(new IndexedPropertyChangeEvent(this, PROJECT_REMOVED, oldProject, null, i));
+        continue;
+      }
+      if (newIndex < lastNewIndex) {
+        return null; // reordered
+      }
+      lastNewIndex = newIndex;
+      Project newProject = newList.get(newIndex);
+      if (!hasSameAttributes(oldProject, newProject)) {
+        updates.add(
+            new IndexedPropertyChangeEvent(
+                this, PROJECT_UPDATED, oldProject, newProject, newIndex));
+      }
+    }
+    List<IndexedPropertyChangeEvent> insertions = new ArrayList<>();
+    for (int i = 0; i < newList.size(); i++) {
+      Project newProject = newList.get(i);
+      if (!oldIndexes.containsKey(getId(newProject))) {
+        insertions.add(new IndexedPropertyChangeEvent(this, PROJECT_INSERTED, null, newProject, i));
+      }
+    }
+    if (removals.size() + insertions.size() + updates.size() > MAX_ROW_CHANGES) {
+      return null;
+    }
+    List<IndexedPropertyChangeEvent> rowChanges = new ArrayList<>(removals);
+    Collections.reverse(rowChanges);
+    rowChanges.addAll(insertions);
+    rowChanges.addAll(updates);
+    return rowChanges;
+  }
+
+  private static int getId(Project project) {
+    try {
+      return project.getId();
+    } catch (InexistentDatabaseEntityException e) {
+      throw new IllegalArgumentException("Only saved projects can be listed", e);
+    }
+  }
+
+  private static boolean hasSameAttributes(Project project, Project other) {
+    return project.getTitle().equals(other.getTitle())
+        && project.getTeamId() == other.getTeamId()
+        && project.getDeadline().equals(other.getDeadline())
+        && project.getStatus() == other.getStatus()
+        && project.getImportance() == other.getImportance()
+        && project.getAssigneeId() == other.getAssigneeId()
+        && project.getSupervisorId() == other.getSupervisorId()
+        && project.getFinishingDate().equals(other.getFinishingDate())
+        && project.getDescription().equals(other.getDescription());
   }
 
   @Override
@@ -50,6 +149,6 @@ public class ProjectListModel implements PropertyChangeObservable {
 
   @Override
   public void removePropertyChangeListener(PropertyChangeListener listener) {
-    support.addPropertyChangeListener(listener);
+    support.removePropertyChangeListener(listener);
   }
 }
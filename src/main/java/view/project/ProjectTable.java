@@ -5,12 +5,13 @@ import model.project.Project;
 import view.CloseableComponent;
 import view.UIFactory;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableCellRenderer;
+import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ProjectTable displays the list of projects which belong to a certain team or which are related to
@@ -21,10 +22,9 @@ import java.util.List;
  */
 public class ProjectTable extends JTable implements CloseableComponent {
 
-  private DefaultTableModel tableModel;
+  private ProjectTableModel tableModel;
   private ProjectTableController controller;
   private JFrame frame;
-  private static final String[] columnNames = {"Name", "Deadline", "Status", "Importance"};
 
   public ProjectTable(JFrame frame, ProjectListModel projectListModel) {
     this.controller = new ProjectTableController(this, projectListModel);
@@ -48,28 +48,25 @@ public class ProjectTable extends JTable implements CloseableComponent {
   }
 
   private void initTableModel() {
-    tableModel = (DefaultTableModel) this.getModel();
-    tableModel.setColumnIdentifiers(columnNames);
+    tableModel = new ProjectTableModel();
+    setModel(tableModel);
     controller.initializeTableModel();
   }
 
-  public void clearTableModel() {
-    while (tableModel.getRowCount() > 0) {
-      tableModel.removeRow(0);
-    }
+  public void setProjects(List<Project> projectsList) {
+    tableModel.setProjects(projectsList);
   }
 
-  public void fillTableModel(List<Project> projectsList) {
-    for (Project project : projectsList) {
-      String[] rowData =
-          new String[] {
-            project.getTitle(),
-            String.valueOf(project.getDeadline()),
-            String.valueOf(project.getStatus()),
-            String.valueOf(project.getImportance())
-          };
-      tableModel.addRow(rowData);
-    }
+  public void insertProject(int row, Project project) {
+    tableModel.insertProject(row, project);
+  }
+
+  public void updateProject(int row, Project project) {
+    tableModel.updateProject(row, project);
+  }
+
+  public void removeProject(int row) {
+    tableModel.removeProject(row);
   }
   // the data in the tables cannot be edited only viewed
   @Override
@@ -81,38 +78,46 @@ public class ProjectTable extends JTable implements CloseableComponent {
     @Override
     public void mouseClicked(MouseEvent evt) {
       int row = getSelectedRow();
-      if (evt.getClickCount() > 1) {
+      if (evt.getClickCount() > 1 && row >= 0) {
         // on double click on the name of the project, the project frame is opened
-        controller.openProject(frame, row);
+        controller.openProject(frame, tableModel.getProjectAt(row));
       }
     }
   }
 
-  class ImportanceRenderer implements TableCellRenderer {
+  /**
+   * ImportanceRenderer paints the cells of a project with the color of its importance, in the style
+   * of a text field. A single label is reused for all the cells (DefaultTableCellRenderer skips the
+   * revalidation and repainting requests which a text field would trigger on every change), and the
+   * colors are decoded only once, so painting a cell allocates no components.
+   */
+  class ImportanceRenderer extends DefaultTableCellRenderer {
+
+    private final Map<Project.Importance, Color> colors = new EnumMap<>(Project.Importance.class);
+
+    ImportanceRenderer() {
+      colors.put(Project.Importance.HIGH, Color.decode("#fcddd7"));
+      colors.put(Project.Importance.MEDIUM, Color.decode("#fbfcd7"));
+      colors.put(Project.Importance.LOW, Color.decode("#cfe6d2"));
+      setFont(UIManager.getFont("TextField.font"));
+      setForeground(UIManager.getColor("TextField.foreground"));
+      setBorder(UIManager.getBorder("TextField.border"));
+    }
 
     Color getColor(Project.Importance importance) {
-      switch (importance) {
-        case HIGH:
-          return Color.decode("#fcddd7");
-        case MEDIUM:
-          return Color.decode("#fbfcd7");
-        case LOW:
-          return Color.decode("#cfe6d2");
-      }
-      return Color.decode("#cfe6d2");
+      return colors.getOrDefault(importance, colors.get(Project.Importance.LOW));
     }
 
+    @Override
     public Component getTableCellRendererComponent(
         JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-      JTextField editor = new JTextField();
-      if (value != null) editor.setText(value.toString());
+      setText(value == null ? "" : value.toString());
       if (isSelected) {
-        editor.setBackground(Color.LIGHT_GRAY);
+        setBackground(Color.LIGHT_GRAY);
       } else {
-        // get color from controller
-        editor.setBackground(getColor(controller.getProjectImportance(row)));
+        setBackground(getColor(tableModel.getProjectAt(row).getImportance()));
       }
-      return editor;
+      return this;
     }
   }
 
@@ -0,0 +1,80 @@
+package view.project;
+
+import model.project.Project;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProjectTableModel is the model of the ProjectTable. Instead of copying the attributes of every
+ * project into rows of strings, it keeps the list of projects received from the ProjectListModel,
+ * and returns the value of a cell only when the table asks for it, which is only for the visible
+ * rows. Replacing the list notifies the table with a single event, no matter how many projects are
+ * displayed, and inserting, updating or removing a project notifies it only about that row.
+ *
+ * @author Beata Keresztes
+ */
+public class ProjectTableModel extends AbstractTableModel {
+
+  private static final String[] columnNames = {"Name", "Deadline", "Status", "Importance"};
+
+  private final List<Project> projects = new ArrayList<>();
+
+  /** Displays the given projects, instead of the current ones. */
+  public void setProjects(List<Project> projects) {
+    this.projects.clear();
+    this.projects.addAll(projects);
+    fireTableDataChanged();
+  }
+
+  public void insertProject(int rowIndex, Project project) {
+    projects.add(rowIndex, project);
+    fireTableRowsInserted(rowIndex, rowIndex);
+  }
+
+  public void updateProject(int rowIndex, Project project) {
+    projects.set(rowIndex, project);
+    fireTableRowsUpdated(rowIndex, rowIndex);
+  }
+
+  public void removeProject(int rowIndex) {
+    projects.remove(rowIndex);
+    fireTableRowsDeleted(rowIndex, rowIndex);
+  }
+
+  public Project getProjectAt(int rowIndex) {
+    return projects.get(rowIndex);
+  }
+
+  @Override
+  public int getRowCount() {
+    return projects.size();
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columnNames.length;
+  }
+
+  @Override
+  public String getColumnName(int columnIndex) {
+    return columnNames[columnIndex];
+  }
+
+  @Override
+  public Object getValueAt(int rowIndex, int columnIndex) {
+    Project project = projects.get(rowIndex);
+    switch (columnIndex) {
+      case 0:
+        return project.getTitle();
+      case 1:
+        return project.getDeadline();
+      case 2:
+        return project.getStatus();
+      case 3:
+        return project.getImportance();
+    }
+    throw new IndexOutOfBoundsException("Invalid column: " + columnIndex);
+  }
+}
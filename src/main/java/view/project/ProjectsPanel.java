@@ -18,6 +18,7 @@ import java.util.List;
 public class ProjectsPanel extends JPanel implements CloseableComponent {
 
   private ProjectTable projectsTable;
+  private ProjectFilterPanel header;
   private JFrame frame;
   private List<CloseableComponent> closeableComponents = new ArrayList<>();
 
@@ -31,7 +32,7 @@ public class ProjectsPanel extends JPanel implements CloseableComponent {
   }
 
   private void initProjectsHeader(Integer teamId, ProjectListModel projectListModel) {
-    ProjectFilterPanel header = new ProjectFilterPanel(teamId, projectListModel);
+    header = new ProjectFilterPanel(teamId, projectListModel);
     closeableComponents.add(header);
     add(header, BorderLayout.NORTH);
   }
@@ -51,10 +52,22 @@ public class ProjectsPanel extends JPanel implements CloseableComponent {
             "Projects List",
             TitledBorder.CENTER,
             TitledBorder.TOP));
-
+    initMoreProjectsLoader(scrollPane);
     add(scrollPane, BorderLayout.CENTER);
   }
 
+  /** Loads more projects when the user scrolls close to the end of the list. */
+  private void initMoreProjectsLoader(JScrollPane scrollPane) {
+    JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+    scrollBar.addAdjustmentListener(
+        e -> {
+          // start loading one screen before the end, so that the user rarely has to wait
+          if (scrollBar.getValue() + 2 * scrollBar.getVisibleAmount() >= scrollBar.getMaximum()) {
+            header.loadMoreProjects();
+          }
+        });
+  }
+
   @Override
   public void onClose() {
     for (CloseableComponent closeableComponent : closeableComponents) {
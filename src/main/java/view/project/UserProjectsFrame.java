@@ -14,7 +14,8 @@ import java.util.List;
  * The UserProjectsFrame allows the user to view all the projects that are either assigned to them,
  * or supervised by them, independent of to which team they belong. The user can visit the project
  * if he/she double clicks on the name of the project, in which case a new frame is opened allowing
- * the user to view the project's details and change its status.
+ * the user to view the project's details and change its status. The projects are loaded page by
+ * page, as the user scrolls down the list.
  *
  * @author Beata Keresztes
  */
@@ -1,6 +1,7 @@
 package view.project.single_project;
 
 import controller.project.single_project.ProjectCommentController;
+import model.InexistentDatabaseEntityException;
 import model.comment.Comment;
 import model.project.Project;
 import view.CloseableComponent;
@@ -11,6 +12,7 @@ import java.awt.*;
 import java.awt.event.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,6 +29,10 @@ public class ProjectCommentPanel extends JPanel implements CloseableComponent {
   private JScrollPane commentListScrollPanel;
   private JPanel commentListPanel;
   private AdjustmentListener adjustmentListener;
+  private boolean scrollingToBottom = false;
+  private Comment oldestComment; // the oldest comment loaded so far.
+  private boolean hasOlderComments = false;
+  private boolean loadingComments = false;
 
   private ProjectCommentController controller;
 
@@ -46,11 +52,11 @@ public class ProjectCommentPanel extends JPanel implements CloseableComponent {
     return commentArea;
   }
 
-  private void clearCommentList() {
-    commentListPanel.removeAll();
+  private void addCommentToPanel(Comment comment) {
+    commentListPanel.add(createCommentRow(comment));
   }
 
-  private void addCommentToPanel(Comment comment) {
+  private JPanel createCommentRow(Comment comment) {
     JPanel headerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
     JLabel senderName = UIFactory.createLabel(controller.getSenderName(comment), null);
     JLabel sendingDate =
@@ -69,17 +75,62 @@ public class ProjectCommentPanel extends JPanel implements CloseableComponent {
     JPanel rowPanel = new JPanel(new BorderLayout());
     rowPanel.add(headerPanel, BorderLayout.NORTH);
     rowPanel.add(commentScrollPane, BorderLayout.CENTER);
-
-    commentListPanel.add(rowPanel);
+    return rowPanel;
   }
 
+  /** Displays the newest page of comments, once it is loaded. */
   private void fillCommentList() {
-    List<Comment> commentList = controller.getComments();
     commentListPanel.setLayout(new GridLayout(0, 1));
-    if (commentList != null) {
-      for (Comment comment : commentList) {
-        addCommentToPanel(comment);
-      }
+    oldestComment = null;
+    hasOlderComments = false;
+    loadOlderComments();
+  }
+
+  /**
+   * Loads the page of comments preceding the oldest displayed one (or the newest page, if no
+   * comment is displayed), and inserts it at the top of the list.
+   */
+  private void loadOlderComments() {
+    loadingComments = true;
+    Comment before = oldestComment;
+    controller.loadPageOfComments(before, page -> insertOlderComments(before, page));
+  }
+
+  /**
+   * Inserts a page of comments at the top of the list, while keeping the displayed comments in
+   * place.
+   *
+   * @param before is the oldest comment which was displayed when the page was requested.
+   */
+  private void insertOlderComments(Comment before, List<Comment> page) {
+    loadingComments = false;
+    hasOlderComments = page.size() == ProjectCommentController.COMMENT_PAGE_SIZE;
+    List<Comment> commentList = new ArrayList<>(page);
+    if (oldestComment != before) {
+      // comments were added while loading, the page may contain some of them
+      commentList.removeIf(comment -> !precedes(comment, oldestComment));
+    }
+    if (commentList.isEmpty()) {
+      return;
+    }
+    JScrollBar scrollBar = commentListScrollPanel.getVerticalScrollBar();
+    int previousMaximum = scrollBar.getMaximum();
+    for (int i = 0; i < commentList.size(); i++) {
+      commentListPanel.add(createCommentRow(commentList.get(i)), i);
+    }
+    oldestComment = commentList.get(0);
+    commentListPanel.revalidate();
+    commentListScrollPanel.validate();
+    scrollBar.setValue(scrollBar.getValue() + scrollBar.getMaximum() - previousMaximum);
+  }
+
+  /** @return true if comment was sent before other, in the order in which they are displayed. */
+  private static boolean precedes(Comment comment, Comment other) {
+    int order = comment.getDateTime().compareTo(other.getDateTime());
+    try {
+      return order < 0 || (order == 0 && comment.getId() < other.getId());
+    } catch (InexistentDatabaseEntityException e) {
+      return order < 0;
     }
   }
 
@@ -87,17 +138,51 @@ public class ProjectCommentPanel extends JPanel implements CloseableComponent {
     adjustmentListener = e -> e.getAdjustable().setValue(e.getAdjustable().getMaximum());
   }
 
+  /** Loads the older comments when the user scrolls to the top of the list. */
+  private void initOlderCommentsLoader() {
+    JScrollBar scrollBar = commentListScrollPanel.getVerticalScrollBar();
+    scrollBar.addAdjustmentListener(
+        e -> {
+          if (!scrollingToBottom
+              && hasOlderComments
+              && !loadingComments
+              && scrollBar.getValue() == scrollBar.getMinimum()
+              && scrollBar.getMaximum() > scrollBar.getVisibleAmount()) {
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (hasOlderComments
+                      && !loadingComments
+                      && scrollBar.getValue() == scrollBar.getMinimum()) {
+                    loadOlderComments();
+                  }
+                });
+          }
+        });
+  }
+
+  private void stopScrollingToBottom() {
+    commentListScrollPanel.getVerticalScrollBar().removeAdjustmentListener(adjustmentListener);
+    scrollingToBottom = false;
+  }
+
   private void initCommentList() {
     commentListPanel = new JPanel();
     commentListScrollPanel = new JScrollPane(commentListPanel);
     fillCommentList();
     commentListScrollPanel.setPreferredSize(COMMENT_PANEL_DIMENSION);
     initAdjustmentListener();
-    commentListScrollPanel.addMouseWheelListener(
-        e ->
-            commentListScrollPanel
-                .getVerticalScrollBar()
-                .removeAdjustmentListener(adjustmentListener));
+    commentListScrollPanel.addMouseWheelListener(e -> stopScrollingToBottom());
+    commentListScrollPanel
+        .getVerticalScrollBar()
+        .addMouseListener(
+            new MouseAdapter() {
+              @Override
+              public void mousePressed(MouseEvent e) {
+                stopScrollingToBottom();
+              }
+            });
+    initOlderCommentsLoader();
+    scrollToBottom();
   }
 
   private void initCommentArea() {
@@ -164,16 +249,22 @@ public class ProjectCommentPanel extends JPanel implements CloseableComponent {
     commentTextArea.setEditable(false);
   }
 
-  public void updateCommentPanel() {
+  /** Displays a new comment at the bottom of the list, without rebuilding the rest of it. */
+  public void appendComment(Comment comment) {
     clearCommentArea();
-    clearCommentList();
-    fillCommentList();
-    revalidate();
+    addCommentToPanel(comment);
+    if (oldestComment == null) {
+      oldestComment = comment;
+    }
+    commentListPanel.revalidate();
     scrollToBottom();
   }
 
   private void scrollToBottom() {
-    commentListScrollPanel.getVerticalScrollBar().addAdjustmentListener(adjustmentListener);
+    if (!scrollingToBottom) {
+      commentListScrollPanel.getVerticalScrollBar().addAdjustmentListener(adjustmentListener);
+      scrollingToBottom = true;
+    }
   }
 
   @Override
@@ -5,7 +5,6 @@ import model.user.User;
 import view.CloseableComponent;
 import view.UIFactory;
 
-import java.util.List;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
@@ -125,10 +124,13 @@ public class TeamMembersPanel extends JPanel implements ActionListener, Closeabl
   }
 
   public void fillMembersList() {
-    List<User> members = controller.getTeamMembers();
-    for (User member : members) {
-      membersListModel.addElement(member.getUsername());
-    }
+    controller.loadTeamMembers(
+        members -> {
+          membersListModel.removeAllElements();
+          for (User member : members) {
+            membersListModel.addElement(member.getUsername());
+          }
+        });
   }
 
   private void initMembersList() {
@@ -140,9 +142,7 @@ public class TeamMembersPanel extends JPanel implements ActionListener, Closeabl
   }
 
   public void updateMembersList() {
-    membersListModel.removeAllElements();
     fillMembersList();
-    membersList.setModel(membersListModel);
   }
 
   public void enableComponents(boolean enableManagerAccess) {
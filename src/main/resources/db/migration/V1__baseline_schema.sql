@@ -0,0 +1,143 @@
+-- The schema of the first release, as exported to project_management_database.sql, with the
+-- content of the lookup tables.
+create table Importance
+(
+	ImportanceId integer not null
+		constraint ProjectImportance_pk
+			primary key autoincrement,
+	ImportanceName nvarchar(30) not null
+);
+
+create table ProjectStatus
+(
+	StatusId integer not null
+		constraint ProjectStatus_pk
+			primary key autoincrement,
+	StatusName nvarchar(20) not null
+);
+
+create unique index ProjectStatus_StatusId_uindex
+	on ProjectStatus (StatusId);
+
+create unique index ProjectStatus_StatusName_uindex
+	on ProjectStatus (StatusName);
+
+create table User
+(
+	UserId integer not null
+		constraint Users_pk
+			primary key autoincrement,
+	UserName nvarchar(20) not null,
+	Password nvarchar(20) not null
+);
+
+create table Team
+(
+	TeamId integer not null
+		constraint Team_pk
+			primary key autoincrement,
+	TeamName nvarchar(50) not null,
+	ManagerId integer not null
+		references User
+			on update restrict on delete restrict,
+	Code nchar(6) not null
+);
+
+create table MemberToTeam
+(
+	Id integer not null
+		constraint MemberToTeam_pk
+			primary key autoincrement,
+	MemberId integer not null
+		references User
+			on update restrict on delete restrict,
+	TeamId integer not null
+		references Team
+			on update restrict on delete restrict
+);
+
+create unique index MemberToTeam_Id_uindex
+	on MemberToTeam (Id);
+
+create unique index MemberToTeam_MemberId_TeamId_uindex
+	on MemberToTeam (MemberId, TeamId);
+
+create table Project
+(
+	ProjectId integer not null
+		constraint Project_pk
+			primary key autoincrement,
+	Name nvarchar(50) not null,
+	TeamId integer not null
+		references Team
+			on update restrict on delete restrict,
+	Description text,
+	Deadline nvarchar(100) not null,
+	AssigneeId integer not null
+		references User
+			on update restrict on delete restrict,
+	SupervisorId integer not null
+		references User
+			on update restrict on delete restrict,
+	StatusId integer not null
+		references ProjectStatus
+			on update restrict on delete restrict,
+	ImportanceId integer default 1 not null
+		references Importance
+			on update restrict on delete restrict,
+	FinishingDate nvarchar(60)
+);
+
+create table Comment
+(
+	CommentId integer not null
+		constraint Comment_pk
+			primary key autoincrement,
+	ProjectId integer not null
+		references Project
+			on update restrict on delete restrict,
+	CommentText text not null,
+	SenderId integer not null
+		references User
+			on update restrict on delete restrict,
+	DateTime nvarchar(60) not null
+);
+
+create unique index Comment_Id_uindex
+	on Comment (CommentId);
+
+create index Project_Deadline_index
+	on Project (Deadline desc);
+
+create index Project_Importance_index
+	on Project (ImportanceId desc);
+
+create unique index Project_ProjectId_uindex
+	on Project (ProjectId);
+
+create index Project_Status_index
+	on Project (StatusId);
+
+create unique index Project_Team_Name_index
+	on Project (TeamId, Name);
+
+create unique index Team_Code_uindex
+	on Team (Code);
+
+create unique index Team_TeamId_uindex
+	on Team (TeamId);
+
+create unique index Users_UserId_uindex
+	on User (UserId);
+
+create unique index Users_UserName_uindex
+	on User (UserName);
+
+INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (1, 'LOW');
+INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (2, 'MEDIUM');
+INSERT INTO Importance (ImportanceId, ImportanceName) VALUES (3, 'HIGH');
+
+INSERT INTO ProjectStatus (StatusId, StatusName) VALUES (1, 'TO_DO');
+INSERT INTO ProjectStatus (StatusId, StatusName) VALUES (2, 'IN_PROGRESS');
+INSERT INTO ProjectStatus (StatusId, StatusName) VALUES (3, 'TURNED_IN');
+INSERT INTO ProjectStatus (StatusId, StatusName) VALUES (4, 'FINISHED');
@@ -0,0 +1,3 @@
+-- Supports loading the comments of a project page by page, ordered by time.
+create index if not exists Comment_ProjectId_DateTime_index
+	on Comment (ProjectId, DateTime);
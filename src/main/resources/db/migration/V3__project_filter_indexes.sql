@@ -0,0 +1,13 @@
+-- Support filtering the projects by team, supervisor or assignee, followed by status and deadline.
+create index if not exists Project_TeamId_StatusId_Deadline_index
+	on Project (TeamId, StatusId, Deadline);
+
+create index if not exists Project_SupervisorId_StatusId_Deadline_index
+	on Project (SupervisorId, StatusId, Deadline);
+
+create index if not exists Project_AssigneeId_StatusId_Deadline_index
+	on Project (AssigneeId, StatusId, Deadline);
+
+-- Covers listing the members of a team, without reading the MemberToTeam table.
+create index if not exists MemberToTeam_TeamId_MemberId_index
+	on MemberToTeam (TeamId, MemberId);
@@ -0,0 +1,66 @@
+-- DeadlineDay and FinishingDay hold the dates of a project as the number of days since 1970-01-01
+-- (like LocalDate.toEpochDay), and FinishedLate is 1 if the project was finished after its
+-- deadline, 0 if it was finished in time, and null if it is not finished. They are maintained by
+-- triggers, so the projects can be filtered by their deadline status with index range lookups.
+alter table Project add column DeadlineDay integer;
+
+alter table Project add column FinishingDay integer;
+
+alter table Project add column FinishedLate integer;
+
+update Project set DeadlineDay = cast(julianday(Deadline) - 2440587.5 as integer),
+	    FinishingDay = cast(julianday(FinishingDate) - 2440587.5 as integer),
+	    FinishedLate = case
+	        when FinishingDate is null
+	            or StatusId <> (select StatusId from ProjectStatus where StatusName = 'FINISHED')
+	        then null
+	        else julianday(FinishingDate) > julianday(Deadline)
+	    end;
+
+create trigger Project_Days_insert
+	after insert on Project
+begin
+	update Project set DeadlineDay = cast(julianday(NEW.Deadline) - 2440587.5 as integer),
+	    FinishingDay = cast(julianday(NEW.FinishingDate) - 2440587.5 as integer),
+	    FinishedLate = case
+	        when NEW.FinishingDate is null
+	            or NEW.StatusId <> (select StatusId from ProjectStatus where StatusName = 'FINISHED')
+	        then null
+	        else julianday(NEW.FinishingDate) > julianday(NEW.Deadline)
+	    end
+	where ProjectId = NEW.ProjectId;
+end;
+
+create trigger Project_Days_update
+	after update of Deadline, FinishingDate, StatusId on Project
+begin
+	update Project set DeadlineDay = cast(julianday(NEW.Deadline) - 2440587.5 as integer),
+	    FinishingDay = cast(julianday(NEW.FinishingDate) - 2440587.5 as integer),
+	    FinishedLate = case
+	        when NEW.FinishingDate is null
+	            or NEW.StatusId <> (select StatusId from ProjectStatus where StatusName = 'FINISHED')
+	        then null
+	        else julianday(NEW.FinishingDate) > julianday(NEW.Deadline)
+	    end
+	where ProjectId = NEW.ProjectId;
+end;
+
+-- The project filters search the day columns instead of the text deadline.
+drop index if exists Project_TeamId_StatusId_Deadline_index;
+
+drop index if exists Project_SupervisorId_StatusId_Deadline_index;
+
+drop index if exists Project_AssigneeId_StatusId_Deadline_index;
+
+create index Project_TeamId_StatusId_DeadlineDay_index
+	on Project (TeamId, StatusId, DeadlineDay);
+
+create index Project_SupervisorId_StatusId_DeadlineDay_index
+	on Project (SupervisorId, StatusId, DeadlineDay);
+
+create index Project_AssigneeId_StatusId_DeadlineDay_index
+	on Project (AssigneeId, StatusId, DeadlineDay);
+
+-- Supports finding the projects finished in time or late.
+create index Project_FinishedLate_DeadlineDay_index
+	on Project (FinishedLate, DeadlineDay);
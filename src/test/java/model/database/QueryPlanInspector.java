@@ -0,0 +1,64 @@
+package model.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * QueryPlanInspector asks sqlite how it would execute a query (with EXPLAIN QUERY PLAN), and finds
+ * the steps which read a whole table instead of searching it with an index. Used to check that the
+ * queries of the repositories stay supported by the indexes of the schema.
+ *
+ * @author Bori Fazakas
+ */
+public class QueryPlanInspector {
+  private QueryPlanInspector() {}
+
+  /**
+   * Returns the steps of the plan of the query, as described by sqlite, for example "SEARCH TABLE
+   * Project AS p USING INDEX Project_TeamId_StatusId_DeadlineDay_index (TeamId=?)". The parameters
+   * of the query don't have to be bound.
+   *
+   * @param c is the connection on which the query would run.
+   * @param sql is the query.
+   * @throws SQLException if the query is invalid.
+   */
+  public static List<String> explain(PooledConnection c, String sql) throws SQLException {
+    PreparedStatement explainSt = c.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+    try (ResultSet result = explainSt.executeQuery()) {
+      List<String> plan = new ArrayList<>();
+      while (result.next()) {
+        plan.add(result.getString("detail"));
+      }
+      return plan;
+    }
+  }
+
+  /**
+   * Returns the steps of the plan which scan one of the given tables, either directly or through
+   * all the entries of an index. For small lookup tables this is expected, so only the tables which
+   * may grow large should be checked.
+   *
+   * @param plan is the plan returned by explain.
+   * @param tables are the names of the tables which must not be scanned.
+   */
+  public static List<String> findFullScans(List<String> plan, Collection<String> tables) {
+    List<String> fullScans = new ArrayList<>();
+    for (String step : plan) {
+      for (String table : tables) {
+        // the format of the step is "SCAN TABLE <table> ..." in older versions of sqlite, and
+        // "SCAN <table> ..." in newer ones
+        if (step.startsWith("SCAN TABLE " + table + " ")
+            || step.equals("SCAN TABLE " + table)
+            || step.startsWith("SCAN " + table + " ")
+            || step.equals("SCAN " + table)) {
+          fullScans.add(step);
+        }
+      }
+    }
+    return fullScans;
+  }
+}
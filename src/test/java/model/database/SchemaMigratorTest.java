@@ -0,0 +1,180 @@
+package model.database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SchemaMigratorTest verifies the splitting of the migration scripts into statements, and the
+ * migration of new databases, of databases whose applied scripts were changed, and of databases
+ * created before the migrations were introduced, which must be baselined at the version their
+ * schema reflects. Every test works on its own database, in a temporary file.
+ *
+ * @author Bori Fazakas
+ */
+public class SchemaMigratorTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private PooledConnection c;
+
+  @Before
+  public void openDatabase() throws IOException, SQLException {
+    c =
+        new PooledConnection(
+            null,
+            true,
+            DriverManager.getConnection(
+                "jdbc:sqlite:" + temporaryFolder.newFile("test.db").getAbsolutePath()));
+  }
+
+  @After
+  public void closeDatabase() {
+    c.closePhysically();
+  }
+
+  @Test
+  public void statementsAreSplitAtTheEndOfTheLines() {
+    SchemaMigrator.Migration migration =
+        new SchemaMigrator.Migration(
+            1,
+            "test",
+            "-- a comment; not a statement\n"
+                + "create table A\n"
+                + "(\n"
+                + "\tName nvarchar(20) default ';'\n"
+                + ");\n"
+                + "\n"
+                + "insert into A (Name) values ('a;'); insert into A (Name) values ('b');\n"
+                + "create index A_Name_index on A (Name)");
+    assertEquals(
+        List.of(
+            "create table A\n(\n\tName nvarchar(20) default ';'\n);",
+            "insert into A (Name) values ('a;'); insert into A (Name) values ('b');",
+            "create index A_Name_index on A (Name)"),
+        migration.getStatements());
+  }
+
+  @Test
+  public void triggersAreSplitAtTheirEnd() {
+    SchemaMigrator.Migration migration =
+        new SchemaMigrator.Migration(
+            1,
+            "test",
+            "CREATE TRIGGER A_insert\n"
+                + "\tafter insert on A\n"
+                + "BEGIN\n"
+                + "\tupdate A set Name = 'x';\n"
+                + "\tdelete from B;\n"
+                + "END;\n"
+                + "create table B (Id integer);");
+    List<String> statements = migration.getStatements();
+    assertEquals(2, statements.size());
+    assertTrue(statements.get(0).startsWith("CREATE TRIGGER A_insert"));
+    assertTrue(statements.get(0).endsWith("\tdelete from B;\nEND;"));
+    assertEquals("create table B (Id integer);", statements.get(1));
+  }
+
+  @Test
+  public void newDatabaseGetsAllTheMigrations() throws SQLException {
+    List<SchemaMigrator.Migration> migrations = SchemaMigrator.loadMigrations();
+    SchemaMigrator.migrate(c);
+    assertEquals(migrations.size(), getExecutionTimes().size());
+    assertTrue(hasIndex("Project_TeamId_StatusId_DeadlineDay_index"));
+    // migrating again changes nothing
+    SchemaMigrator.migrate(c);
+    assertEquals(migrations.size(), getExecutionTimes().size());
+  }
+
+  @Test
+  public void changedMigrationIsReported() throws SQLException {
+    SchemaMigrator.migrate(c);
+    c.execute("UPDATE SchemaVersion SET Checksum = Checksum + 1 WHERE Version = 2");
+    try {
+      SchemaMigrator.migrate(c);
+      fail("The changed checksum was not reported");
+    } catch (SchemaMigrationException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("V2"));
+    }
+  }
+
+  @Test
+  public void databaseWithoutMigrationsIsBaselinedAtVersion1() throws SQLException {
+    List<SchemaMigrator.Migration> migrations = SchemaMigrator.loadMigrations();
+    executeMigrations(migrations.subList(0, 1));
+    SchemaMigrator.migrate(c);
+    Map<Integer, Long> executionTimes = getExecutionTimes();
+    assertEquals(migrations.size(), executionTimes.size());
+    assertEquals(0, (long) executionTimes.get(1)); // recorded, not executed
+    assertTrue(hasIndex("Comment_ProjectId_DateTime_index"));
+    assertTrue(hasIndex("Project_TeamId_StatusId_DeadlineDay_index"));
+    assertTrue(hasColumn("Project", "DeadlineDay"));
+  }
+
+  @Test
+  public void databaseWithDayColumnsIsBaselinedAtVersion4() throws SQLException {
+    List<SchemaMigrator.Migration> migrations = SchemaMigrator.loadMigrations();
+    executeMigrations(migrations.subList(0, 4));
+    // V4 would fail if it was executed again, since its columns exist
+    SchemaMigrator.migrate(c);
+    Map<Integer, Long> executionTimes = getExecutionTimes();
+    assertEquals(migrations.size(), executionTimes.size());
+    for (int version = 1; version <= 4; version++) {
+      assertEquals(0, (long) executionTimes.get(version));
+    }
+  }
+
+  /** Builds the schema the way it was done before the migrations were introduced. */
+  private void executeMigrations(List<SchemaMigrator.Migration> migrations) throws SQLException {
+    for (SchemaMigrator.Migration migration : migrations) {
+      for (String statement : migration.getStatements()) {
+        c.execute(statement);
+      }
+    }
+  }
+
+  /** @return the execution times of the applied migrations, by their versions. */
+  private Map<Integer, Long> getExecutionTimes() throws SQLException {
+    Map<Integer, Long> executionTimes = new HashMap<>();
+    try (ResultSet result =
+        c.prepareStatement("SELECT Version, ExecutionTime FROM SchemaVersion").executeQuery()) {
+      while (result.next()) {
+        executionTimes.put(result.getInt("Version"), result.getLong("ExecutionTime"));
+      }
+    }
+    return executionTimes;
+  }
+
+  private boolean hasIndex(String index) throws SQLException {
+    try (ResultSet result =
+        c.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = '" + index + "'")
+            .executeQuery()) {
+      return result.next();
+    }
+  }
+
+  private boolean hasColumn(String table, String column) throws SQLException {
+    try (ResultSet result = c.prepareStatement("PRAGMA table_info(" + table + ")").executeQuery()) {
+      while (result.next()) {
+        if (result.getString("name").equalsIgnoreCase(column)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package model.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * TestDatabase points the SqliteDatabaseConnectionFactory to a new database in a temporary file, so
+ * that the tests never open the project_management_app.db in the working directory. The schema is
+ * created by the SchemaMigrator when the first connection is requested.
+ *
+ * <p>The factory is opened only once in a JVM, so the database is shared by all the tests run in
+ * it, and it is deleted when the JVM exits. The tests must not shut down the factory.
+ *
+ * @author Bori Fazakas
+ */
+public class TestDatabase {
+  private static final String DATABASE_FILE_PROPERTY = "database.file";
+  private static final String DATABASE_FILE_NAME = "project_management_app.db";
+
+  private static boolean created = false;
+
+  private TestDatabase() {}
+
+  /**
+   * Creates the temporary database, unless it was created already by another test.
+   *
+   * @throws IOException if the temporary directory could not be created.
+   */
+  public static synchronized void use() throws IOException {
+    if (created) {
+      return;
+    }
+    File directory = Files.createTempDirectory("project-management-test").toFile();
+    // the files are deleted in the reverse order of registration, so the directory is the last
+    directory.deleteOnExit();
+    for (String suffix : new String[] {"", "-journal", "-wal", "-shm"}) {
+      new File(directory, DATABASE_FILE_NAME + suffix).deleteOnExit();
+    }
+    System.setProperty(
+        DATABASE_FILE_PROPERTY, new File(directory, DATABASE_FILE_NAME).getAbsolutePath());
+    created = true;
+  }
+}
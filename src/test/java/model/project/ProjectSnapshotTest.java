@@ -0,0 +1,127 @@
+package model.project;
+
+import model.InexistentDatabaseEntityException;
+import model.database.TestDatabase;
+import model.project.repository.impl.SqliteProjectRepository;
+import model.team.Team;
+import model.team.repository.impl.SqliteTeamRepository;
+import model.user.User;
+import model.user.repository.impl.SqliteUserRepository;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static model.project.repository.impl.ProjectQueryPlanTest.nonEmptySubsets;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ProjectSnapshotTest verifies that narrowing and sorting the projects of a team in memory gives
+ * the same list as the query of the database with the same filters and order, for every combination
+ * of allowed statuses and deadline statuses, every sort key and direction. Together this checks
+ * that Project.getDeadlineStatus and the comparators of the SorterTypes agree with the conditions
+ * and the ORDER BY clause built by ProjectQueryBuilder.
+ *
+ * <p>The projects are generated on the TestDatabase, with deadlines and finishing dates around
+ * today, and few distinct values, so that the boundaries of the deadline statuses are covered, and
+ * there are many ties to break.
+ *
+ * @author Bori Fazakas
+ */
+public class ProjectSnapshotTest {
+  private static final int PROJECT_COUNT = 200;
+
+  private static SqliteProjectRepository projectRepository;
+  private static int teamId;
+  private static ProjectSnapshot snapshot;
+
+  @BeforeClass
+  public static void generateProjects()
+      throws IOException, SQLException, InexistentDatabaseEntityException {
+    TestDatabase.use();
+    projectRepository = SqliteProjectRepository.getInstance();
+    String suffix = String.valueOf(System.nanoTime());
+    User manager =
+        SqliteUserRepository.getInstance().saveUser(new User.SavableUser("m" + suffix, "p"));
+    User member =
+        SqliteUserRepository.getInstance().saveUser(new User.SavableUser("u" + suffix, "p"));
+    Team team =
+        SqliteTeamRepository.getInstance()
+            .saveTeam(new Team.SavableTeam("t" + suffix, manager.getId(), suffix));
+    teamId = team.getId();
+
+    Random random = new Random(1);
+    LocalDate today = LocalDate.now();
+    Project.Status[] statuses = Project.Status.values();
+    Project.Importance[] importances = Project.Importance.values();
+    for (int i = 0; i < PROJECT_COUNT; i++) {
+      Project.SavableProject project =
+          new Project.SavableProject(
+              "Project " + i,
+              teamId,
+              today.plusDays(random.nextInt(7) - 3),
+              random.nextBoolean() ? manager.getId() : member.getId(),
+              random.nextBoolean() ? manager.getId() : member.getId(),
+              importances[random.nextInt(importances.length)]);
+      project.setStatus(statuses[random.nextInt(statuses.length)]);
+      if (project.getStatus() == Project.Status.FINISHED) {
+        // before, on, or after the deadline
+        project.setFinishingDate(project.getDeadline().plusDays(random.nextInt(3) - 1));
+      }
+      projectRepository.saveProject(project);
+    }
+    snapshot =
+        new ProjectSnapshot(
+            projectRepository.getProjectsOfTeam(
+                teamId,
+                EnumSet.allOf(Project.Status.class),
+                null,
+                null,
+                EnumSet.allOf(Project.DeadlineStatus.class),
+                ProjectOrder.byId()));
+  }
+
+  @Test
+  public void selectMatchesTheQuery() throws SQLException, InexistentDatabaseEntityException {
+    assertEquals(PROJECT_COUNT, snapshot.size());
+    LocalDate today = LocalDate.now();
+    for (EnumSet<Project.Status> statuses : nonEmptySubsets(Project.Status.class)) {
+      for (EnumSet<Project.DeadlineStatus> deadlineStatuses :
+          nonEmptySubsets(Project.DeadlineStatus.class)) {
+        for (Project.SorterType sorterType : Project.SorterType.values()) {
+          for (boolean descending : new boolean[] {false, true}) {
+            for (ProjectOrder order :
+                List.of(
+                    ProjectOrder.by(sorterType, descending),
+                    ProjectOrder.by(sorterType, descending)
+                        .thenBy(Project.SorterType.DEADLINE, false))) {
+              List<Project> queried =
+                  projectRepository.getProjectsOfTeam(
+                      teamId, statuses, null, null, deadlineStatuses, order);
+              List<Project> selected = snapshot.select(statuses, deadlineStatuses, order, today);
+              assertEquals(
+                  statuses + " " + deadlineStatuses + " " + sorterType + " desc=" + descending,
+                  getIds(queried),
+                  getIds(selected));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static List<Integer> getIds(List<Project> projects)
+      throws InexistentDatabaseEntityException {
+    List<Integer> ids = new ArrayList<>();
+    for (Project project : projects) {
+      ids.add(project.getId());
+    }
+    return ids;
+  }
+}
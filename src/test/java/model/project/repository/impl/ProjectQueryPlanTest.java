@@ -0,0 +1,119 @@
+package model.project.repository.impl;
+
+import model.InexistentDatabaseEntityException;
+import model.database.PooledConnection;
+import model.database.QueryPlanInspector;
+import model.database.SqliteDatabaseConnectionFactory;
+import model.database.TestDatabase;
+import model.project.Project;
+import model.project.ProjectOrder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ProjectQueryPlanTest verifies that none of the shapes of the project filter queries built by
+ * ProjectQueryBuilder reads the whole Project table: every variant must be able to search it with
+ * an index (on the team, the supervisor or the assignee), both when all the projects are listed,
+ * and when a page of them is. Every combination of allowed statuses and deadline statuses is
+ * checked, since they change the conditions of the query (all the statuses allowed means no status
+ * condition, and the finished deadline statuses add conditions on FinishedLate, alone or together
+ * with the unfinished ones).
+ *
+ * <p>The query without a team, supervisor and assignee filter is excluded: it would list the
+ * projects of all the users, so it reads the whole table by definition. It is never issued, since
+ * ProjectManager requires the listed projects to be assigned to or supervised by the current user.
+ *
+ * <p>The plans are checked on the TestDatabase, whose schema is built by the migrations.
+ *
+ * @author Bori Fazakas
+ */
+public class ProjectQueryPlanTest {
+  /** The tables which may grow large (and their aliases), so they must never be scanned. */
+  private static final List<String> LARGE_TABLES = List.of("Project", "p");
+
+  @BeforeClass
+  public static void useTestDatabase() throws IOException {
+    TestDatabase.use();
+  }
+
+  @Test
+  public void filterQueriesDoNotScanProjects()
+      throws SQLException, InexistentDatabaseEntityException {
+    ProjectLookupTables lookupTables = new ProjectLookupTables();
+    // the last project of a previous page; the values don't matter, only the shape of the query
+    Project lastOfPage = new Project(0, "", 0, LocalDate.now(), 0, 0, Project.Importance.MEDIUM);
+    List<String> fullScans = new ArrayList<>();
+    try (PooledConnection c = SqliteDatabaseConnectionFactory.getReadConnection()) {
+      // filters = 0 (no team, supervisor or assignee) is never queried
+      for (int filters = 1; filters < 8; filters++) {
+        for (EnumSet<Project.Status> statuses : nonEmptySubsets(Project.Status.class)) {
+          for (EnumSet<Project.DeadlineStatus> deadlineStatuses :
+              nonEmptySubsets(Project.DeadlineStatus.class)) {
+            for (Project.SorterType sorterType : Project.SorterType.values()) {
+              for (boolean paged : new boolean[] {false, true}) {
+                ProjectOrder order =
+                    ProjectOrder.by(sorterType, false).thenBy(Project.SorterType.DEADLINE, false);
+                ProjectQueryBuilder builder = new ProjectQueryBuilder(lookupTables);
+                if ((filters & 1) != 0) {
+                  builder.inTeam(0);
+                }
+                builder
+                    .supervisedBy((filters & 2) != 0 ? 0 : null)
+                    .assignedTo((filters & 4) != 0 ? 0 : null)
+                    .withStatuses(statuses)
+                    .withDeadlineStatuses(deadlineStatuses, LocalDate.now())
+                    .orderedBy(order);
+                if (paged) {
+                  builder.after(order, lastOfPage).limit(100);
+                }
+                List<String> plan = QueryPlanInspector.explain(c, builder.getSql());
+                for (String scan : QueryPlanInspector.findFullScans(plan, LARGE_TABLES)) {
+                  fullScans.add(
+                      String.format(
+                          "team=%b supervisor=%b assignee=%b statuses=%s deadlineStatuses=%s "
+                              + "sort=%s paged=%b: %s",
+                          (filters & 1) != 0,
+                          (filters & 2) != 0,
+                          (filters & 4) != 0,
+                          statuses,
+                          deadlineStatuses,
+                          sorterType,
+                          paged,
+                          scan));
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    assertTrue(
+        fullScans.size() + " full table scans:\n" + String.join("\n", fullScans),
+        fullScans.isEmpty());
+  }
+
+  /** @return all the non-empty subsets of the constants of the enum. */
+  public static <E extends Enum<E>> List<EnumSet<E>> nonEmptySubsets(Class<E> enumClass) {
+    E[] constants = enumClass.getEnumConstants();
+    List<EnumSet<E>> subsets = new ArrayList<>();
+    for (int mask = 1; mask < 1 << constants.length; mask++) {
+      EnumSet<E> subset = EnumSet.noneOf(enumClass);
+      for (int i = 0; i < constants.length; i++) {
+        if ((mask & 1 << i) != 0) {
+          subset.add(constants[i]);
+        }
+      }
+      subsets.add(subset);
+    }
+    return subsets;
+  }
+}
@@ -0,0 +1,248 @@
+package model.user.repository.impl;
+
+import model.InexistentDatabaseEntityException;
+import model.user.User;
+import model.user.UserManager;
+import model.user.repository.UserRepository;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CachingUserRepositoryTest verifies that CachingUserRepository serves the cached users without
+ * querying the underlying repository, and that it drops or replaces them whenever they may have
+ * become stale: when a user is updated, when the account data changes, and when the cache is full.
+ * It also verifies that a user loaded while another thread updated it is not cached, and that a
+ * slow load does not block the lookups of the cached users.
+ *
+ * <p>The underlying repository is an in-memory fake, whose loads can be held back.
+ *
+ * @author Bori Fazakas
+ */
+public class CachingUserRepositoryTest {
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private FakeUserRepository repository;
+  private CachingUserRepository cachingRepository;
+
+  @Before
+  public void createRepositories() {
+    repository = new FakeUserRepository();
+    repository.users.put(1, new User(1, "anna", "a"));
+    repository.users.put(2, new User(2, "bela", "b"));
+    repository.users.put(3, new User(3, "csilla", "c"));
+    cachingRepository = new CachingUserRepository(repository, 2);
+  }
+
+  @Test
+  public void cachedUsersAreNotLoadedAgain() throws SQLException {
+    User user = cachingRepository.getUserById(1);
+    assertEquals("anna", user.getUsername());
+    assertEquals("anna", cachingRepository.getUserById(1).getUsername());
+    assertEquals("anna", cachingRepository.getUserByUsername("anna").getUsername());
+    assertEquals(1, repository.loads);
+    assertEquals(2, cachingRepository.getHitCount());
+    assertEquals(1, cachingRepository.getMissCount());
+  }
+
+  @Test
+  public void cachedUsersAreCopied() throws SQLException {
+    User user = cachingRepository.getUserById(1);
+    user.setUsername("changed");
+    User cachedUser = cachingRepository.getUserById(1);
+    assertNotSame(user, cachedUser);
+    assertEquals("anna", cachedUser.getUsername());
+  }
+
+  @Test
+  public void missingUsersAreNotCached() throws SQLException {
+    assertNull(cachingRepository.getUserById(4));
+    assertNull(cachingRepository.getUserById(4));
+    assertEquals(2, repository.loads);
+  }
+
+  @Test
+  public void updatedUserReplacesTheCachedOne()
+      throws SQLException, InexistentDatabaseEntityException {
+    cachingRepository.getUserById(1);
+    cachingRepository.updateUser(new User(1, "anna2", "a"));
+    assertEquals("anna2", cachingRepository.getUserById(1).getUsername());
+    assertEquals("anna2", cachingRepository.getUserByUsername("anna2").getUsername());
+    assertEquals(1, repository.loads);
+    // the old username is not cached anymore
+    assertNull(cachingRepository.getUserByUsername("anna"));
+    assertEquals(2, repository.loads);
+  }
+
+  @Test
+  public void changedAccountIsInvalidated() throws SQLException {
+    User oldUser = cachingRepository.getUserById(1);
+    User newUser = new User(1, "anna2", "a");
+    repository.users.put(1, newUser); // changed by someone else
+    cachingRepository.propertyChange(
+        new PropertyChangeEvent(this, UserManager.UPDATE_ACCOUNT_PROPERTY, oldUser, newUser));
+    assertEquals("anna2", cachingRepository.getUserById(1).getUsername());
+    assertEquals(2, repository.loads);
+  }
+
+  @Test
+  public void leastRecentlyUsedUserIsEvicted() throws SQLException {
+    cachingRepository.getUserById(1);
+    cachingRepository.getUserById(2);
+    cachingRepository.getUserById(1);
+    cachingRepository.getUserById(3); // evicts 2
+    assertEquals(3, repository.loads);
+    cachingRepository.getUserById(1);
+    cachingRepository.getUserByUsername("csilla");
+    assertEquals(3, repository.loads);
+    cachingRepository.getUserByUsername("bela");
+    assertEquals(4, repository.loads);
+  }
+
+  @Test
+  public void userLoadedDuringAnUpdateIsNotCached()
+      throws SQLException, InexistentDatabaseEntityException, InterruptedException,
+          ExecutionException, TimeoutException {
+    repository.holdBackLoads();
+    CompletableFuture<User> load = loadInBackground(1);
+    assertTrue("Timed out", repository.loadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    // the load read the old user, which is updated before the load finishes
+    cachingRepository.updateUser(new User(1, "anna2", "a"));
+    repository.releaseLoads();
+    assertEquals("anna", load.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getUsername());
+    assertEquals("anna2", cachingRepository.getUserById(1).getUsername());
+    assertEquals(1, repository.loads);
+  }
+
+  @Test
+  public void userLoadedDuringAClearIsNotCached()
+      throws SQLException, InterruptedException, ExecutionException, TimeoutException {
+    repository.holdBackLoads();
+    CompletableFuture<User> load = loadInBackground(1);
+    assertTrue("Timed out", repository.loadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    cachingRepository.clear();
+    repository.releaseLoads();
+    load.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    cachingRepository.getUserById(1);
+    assertEquals(2, repository.loads);
+  }
+
+  @Test
+  public void slowLoadDoesNotBlockCachedUsers()
+      throws SQLException, InterruptedException, ExecutionException, TimeoutException {
+    cachingRepository.getUserById(2);
+    repository.holdBackLoads();
+    CompletableFuture<User> load = loadInBackground(1);
+    assertTrue("Timed out", repository.loadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    CompletableFuture<User> lookup = loadInBackground(2);
+    assertEquals("bela", lookup.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getUsername());
+    repository.releaseLoads();
+    assertEquals("anna", load.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getUsername());
+  }
+
+  private CompletableFuture<User> loadInBackground(int id) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return cachingRepository.getUserById(id);
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  /**
+   * An in-memory UserRepository, which counts the loads. If its loads are held back, they read the
+   * user, then wait until they are released.
+   */
+  private static class FakeUserRepository implements UserRepository {
+    private final Map<Integer, User> users = new HashMap<>();
+    private volatile int loads = 0;
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private CountDownLatch loadsReleased = new CountDownLatch(0);
+
+    private void holdBackLoads() {
+      loadsReleased = new CountDownLatch(1);
+    }
+
+    private void releaseLoads() {
+      loadsReleased.countDown();
+    }
+
+    @Override
+    public synchronized User saveUser(User user) {
+      User savedUser = new User(users.size() + 1, user.getUsername(), user.getPassword());
+      users.put(users.size() + 1, savedUser);
+      return savedUser;
+    }
+
+    @Override
+    public int getUserId(String username, String password) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @Nullable
+    public User getUserById(int id) throws SQLException {
+      User user;
+      synchronized (this) {
+        loads++;
+        user = users.get(id);
+      }
+      waitUntilReleased();
+      return user == null ? null : new User(id, user.getUsername(), user.getPassword());
+    }
+
+    @Override
+    @Nullable
+    public User getUserByUsername(String username) throws SQLException {
+      Integer id = null;
+      synchronized (this) {
+        loads++;
+        for (Map.Entry<Integer, User> entry : users.entrySet()) {
+          if (entry.getValue().getUsername().equals(username)) {
+            id = entry.getKey();
+          }
+        }
+      }
+      waitUntilReleased();
+      return id == null ? null : new User(id, username, users.get(id).getPassword());
+    }
+
+    @Override
+    public synchronized void updateUser(User user) throws InexistentDatabaseEntityException {
+      users.put(user.getId(), user);
+    }
+
+    private void waitUntilReleased() throws SQLException {
+      CountDownLatch released = loadsReleased;
+      if (released.getCount() == 0) {
+        return;
+      }
+      loadStarted.countDown();
+      try {
+        if (!released.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          throw new SQLException("The load was not released");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException(e);
+      }
+    }
+  }
+}
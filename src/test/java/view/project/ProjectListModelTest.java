@@ -0,0 +1,201 @@
+package view.project;
+
+import model.InexistentDatabaseEntityException;
+import model.project.Project;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ProjectListModelTest verifies the events fired by ProjectListModel when its list is replaced: the
+ * row events must transform the old list into the new one when they are applied in order, and a
+ * single PROJECT_LIST event must be fired instead if the order of the projects changed, or there
+ * are too many changed rows.
+ *
+ * @author Beata Keresztes
+ */
+public class ProjectListModelTest {
+  private static final LocalDate DEADLINE = LocalDate.of(2021, 5, 1);
+
+  private ProjectListModel projectListModel;
+  private final List<PropertyChangeEvent> events = new ArrayList<>();
+
+  @Before
+  public void createModel() {
+    projectListModel = new ProjectListModel();
+    projectListModel.addPropertyChangeListener(events::add);
+  }
+
+  @Test
+  public void removalsAreFiredFromTheLastRow()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    List<Project> oldList = createProjects(1, 2, 3, 4, 5);
+    setProjectList(oldList);
+    List<Project> newList = List.of(oldList.get(0), oldList.get(2), oldList.get(4));
+    setProjectList(newList);
+    assertEquals(2, events.size());
+    assertRowChange(events.get(0), ProjectListModel.PROJECT_REMOVED, 3);
+    assertRowChange(events.get(1), ProjectListModel.PROJECT_REMOVED, 1);
+    assertTransforms(oldList, newList);
+  }
+
+  @Test
+  public void insertionsAreFiredFromTheFirstRow()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    List<Project> oldList = createProjects(2, 4);
+    setProjectList(oldList);
+    List<Project> newList = new ArrayList<>(createProjects(1, 3, 5));
+    newList.add(1, oldList.get(0));
+    newList.add(3, oldList.get(1));
+    setProjectList(newList);
+    assertEquals(3, events.size());
+    assertRowChange(events.get(0), ProjectListModel.PROJECT_INSERTED, 0);
+    assertRowChange(events.get(1), ProjectListModel.PROJECT_INSERTED, 2);
+    assertRowChange(events.get(2), ProjectListModel.PROJECT_INSERTED, 4);
+    assertTransforms(oldList, newList);
+  }
+
+  @Test
+  public void onlyChangedProjectsAreUpdated()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    List<Project> oldList = createProjects(1, 2, 3);
+    setProjectList(oldList);
+    List<Project> newList =
+        List.of(createProject(1), createProject(2, "Renamed project"), createProject(3));
+    setProjectList(newList);
+    assertEquals(1, events.size());
+    assertRowChange(events.get(0), ProjectListModel.PROJECT_UPDATED, 1);
+    assertSame(newList.get(1), events.get(0).getNewValue());
+  }
+
+  @Test
+  public void mixedChangesTransformTheList()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    List<Project> oldList = createProjects(1, 2, 3, 4, 5, 6);
+    setProjectList(oldList);
+    List<Project> newList =
+        List.of(
+            createProject(7),
+            oldList.get(1),
+            createProject(3, "Renamed project"),
+            createProject(8),
+            oldList.get(5),
+            createProject(9));
+    setProjectList(newList);
+    for (PropertyChangeEvent event : events) {
+      assertTrue(event instanceof IndexedPropertyChangeEvent);
+    }
+    assertTransforms(oldList, newList);
+  }
+
+  @Test
+  public void reorderingReplacesTheList()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    List<Project> oldList = createProjects(1, 2, 3);
+    setProjectList(oldList);
+    setProjectList(List.of(oldList.get(0), oldList.get(2), oldList.get(1)));
+    assertEquals(1, events.size());
+    assertEquals(ProjectListModel.PROJECT_LIST, events.get(0).getPropertyName());
+  }
+
+  @Test
+  public void tooManyChangesReplaceTheList()
+      throws InvocationTargetException, InterruptedException, InexistentDatabaseEntityException {
+    // 1 removal and 199 insertions are still fired as row events
+    setProjectList(createProjects(1));
+    setProjectList(createProjects(createIds(2, 199)));
+    assertEquals(200, events.size());
+    // 1 removal and 200 insertions are not
+    setProjectList(createProjects(1));
+    setProjectList(createProjects(createIds(2, 200)));
+    assertEquals(1, events.size());
+    assertEquals(ProjectListModel.PROJECT_LIST, events.get(0).getPropertyName());
+  }
+
+  private static int[] createIds(int first, int count) {
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = first + i;
+    }
+    return ids;
+  }
+
+  /**
+   * Sets the list of the model, and waits for the events fired by it, dropping the earlier ones.
+   */
+  private void setProjectList(List<Project> projects)
+      throws InvocationTargetException, InterruptedException {
+    SwingUtilities.invokeAndWait(events::clear);
+    projectListModel.setProjectList(projects);
+    // the events are delivered on the Event Dispatch Thread, before this empty task
+    SwingUtilities.invokeAndWait(() -> {});
+  }
+
+  /** Applies the row events to oldList, and checks that the result is newList. */
+  private void assertTransforms(List<Project> oldList, List<Project> newList)
+      throws InexistentDatabaseEntityException {
+    List<Project> rows = new ArrayList<>(oldList);
+    for (PropertyChangeEvent event : events) {
+      int index = ((IndexedPropertyChangeEvent) event).getIndex();
+      switch (event.getPropertyName()) {
+        case ProjectListModel.PROJECT_REMOVED:
+          assertSame(event.getOldValue(), rows.remove(index));
+          break;
+        case ProjectListModel.PROJECT_INSERTED:
+          rows.add(index, (Project) event.getNewValue());
+          break;
+        case ProjectListModel.PROJECT_UPDATED:
+          assertEquals(((Project) event.getNewValue()).getId(), rows.get(index).getId());
+          rows.set(index, (Project) event.getNewValue());
+          break;
+        default:
+          throw new AssertionError("Unexpected event " + event.getPropertyName());
+      }
+    }
+    assertEquals(getIds(newList), getIds(rows));
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals(newList.get(i).getTitle(), rows.get(i).getTitle());
+    }
+  }
+
+  private static void assertRowChange(PropertyChangeEvent event, String propertyName, int index) {
+    assertEquals(propertyName, event.getPropertyName());
+    assertEquals(index, ((IndexedPropertyChangeEvent) event).getIndex());
+  }
+
+  private static List<Project> createProjects(int... ids) {
+    List<Project> projects = new ArrayList<>();
+    for (int id : ids) {
+      projects.add(createProject(id));
+    }
+    return projects;
+  }
+
+  private static Project createProject(int id) {
+    return createProject(id, "Project " + id);
+  }
+
+  private static Project createProject(int id, String title) {
+    return new Project(id, title, 1, DEADLINE, 1, 1, Project.Importance.MEDIUM);
+  }
+
+  private static List<Integer> getIds(List<Project> projects)
+      throws InexistentDatabaseEntityException {
+    List<Integer> ids = new ArrayList<>();
+    for (Project project : projects) {
+      ids.add(project.getId());
+    }
+    return ids;
+  }
+}
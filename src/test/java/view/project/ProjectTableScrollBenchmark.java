@@ -0,0 +1,109 @@
+package view.project;
+
+import model.project.Project;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProjectTableScrollBenchmark measures the cost of scrolling a large ProjectTable: it fills the
+ * table with generated projects (without using the database), and paints it frame by frame into an
+ * image, moving the visible area down by a few rows in every frame, like a user scrolling. It
+ * prints the average time and the memory allocated per frame, which is dominated by the cell
+ * renderers, so it can be run after changing them. It is not a test, so it is run by hand, after
+ * mvn test-compile:
+ *
+ * <pre>
+ * java -Djava.awt.headless=true -cp target/classes:target/test-classes:...
+ *     view.project.ProjectTableScrollBenchmark
+ * </pre>
+ *
+ * <p>The number of projects, and the number of measured frames can be given as arguments.
+ *
+ * @author Beata Keresztes
+ */
+public class ProjectTableScrollBenchmark {
+  private static final int VIEWPORT_WIDTH = 800;
+  private static final int VIEWPORT_HEIGHT = 600;
+  private static final int ROWS_PER_FRAME = 3;
+  private static final int WARMUP_FRAMES = 500;
+
+  private ProjectTableScrollBenchmark() {}
+
+  public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+    int projectCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    int frames = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    SwingUtilities.invokeAndWait(() -> run(projectCount, frames));
+    System.exit(0);
+  }
+
+  private static void run(int projectCount, int frames) {
+    ProjectListModel projectListModel = new ProjectListModel();
+    ProjectTable table = new ProjectTable(null, projectListModel);
+    table.setProjects(generateProjects(projectCount));
+    table.setSize(VIEWPORT_WIDTH, table.getRowCount() * table.getRowHeight());
+    table.doLayout();
+    table.setRowSelectionInterval(0, 0);
+
+    BufferedImage image =
+        new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    paintFrames(table, image, WARMUP_FRAMES);
+    long startAllocatedBytes = getAllocatedBytes();
+    long startTime = System.nanoTime();
+    paintFrames(table, image, frames);
+    long duration = System.nanoTime() - startTime;
+    long allocatedBytes = getAllocatedBytes() - startAllocatedBytes;
+    table.onClose();
+
+    System.out.printf(
+        "%d projects, %d frames: %.3f ms/frame, %d bytes allocated/frame%n",
+        projectCount, frames, duration / 1e6 / frames, allocatedBytes / frames);
+  }
+
+  /** Paints the visible area of the table, scrolling down by ROWS_PER_FRAME in every frame. */
+  private static void paintFrames(ProjectTable table, BufferedImage image, int frames) {
+    int scrollableHeight = Math.max(1, table.getHeight() - VIEWPORT_HEIGHT);
+    for (int frame = 0; frame < frames; frame++) {
+      int top = (frame * ROWS_PER_FRAME * table.getRowHeight()) % scrollableHeight;
+      Graphics2D g = image.createGraphics();
+      g.translate(0, -top);
+      g.setClip(0, top, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+      table.paint(g);
+      g.dispose();
+    }
+  }
+
+  private static List<Project> generateProjects(int projectCount) {
+    List<Project> projects = new ArrayList<>();
+    Project.Importance[] importances = Project.Importance.values();
+    LocalDate today = LocalDate.now();
+    for (int i = 0; i < projectCount; i++) {
+      projects.add(
+          new Project(
+              i,
+              "Project " + i,
+              0,
+              today.plusDays(i % 100),
+              0,
+              0,
+              importances[i % importances.length]));
+    }
+    return projects;
+  }
+
+  /** @return the number of bytes allocated by the current thread so far, or 0 if not supported. */
+  private static long getAllocatedBytes() {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadBean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+}